@@ -0,0 +1,55 @@
+package commands;
+
+import com.codeborne.selenide.Command;
+import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.commands.Commands;
+import com.codeborne.selenide.commands.Should;
+import com.codeborne.selenide.commands.ShouldBe;
+import com.codeborne.selenide.commands.ShouldHave;
+import com.codeborne.selenide.commands.ShouldNot;
+import com.codeborne.selenide.commands.ShouldNotBe;
+import com.codeborne.selenide.commands.ShouldNotHave;
+import com.codeborne.selenide.impl.WebElementSource;
+import exception.EnvironmentError;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import waiters.WaitAbortSignal;
+
+import java.io.IOException;
+
+/**
+ * Selenide's should* command which fails with EnvironmentError once WaitAbortSignal of current thread finds a reason
+ * to abort, instead of retrying until Configuration.timeout. The signal is checked before each attempt of the check,
+ * on the thread running it. Selenide retries on WebDriverException and AssertionError only, so the check fails
+ * right away.
+ *
+ * Replaces the should* commands of Selenide for all threads, see register(). Element collections' should* checks
+ * don't run through the commands and can't be aborted this way.
+ */
+@RequiredArgsConstructor
+public class AbortableCheck implements Command<SelenideElement> {
+
+    private final Command<SelenideElement> check;
+
+    /**
+     * Replaces Selenide's should* commands with their abortable versions, can be called more than once
+     */
+    public static void register() {
+        val commands = Commands.getInstance();
+        commands.add("should", new AbortableCheck(new Should()));
+        commands.add("shouldBe", new AbortableCheck(new ShouldBe()));
+        commands.add("shouldHave", new AbortableCheck(new ShouldHave()));
+        commands.add("shouldNot", new AbortableCheck(new ShouldNot()));
+        commands.add("shouldNotBe", new AbortableCheck(new ShouldNotBe()));
+        commands.add("shouldNotHave", new AbortableCheck(new ShouldNotHave()));
+    }
+
+    @Override
+    public SelenideElement execute(SelenideElement proxy, WebElementSource locator, Object[] args) throws IOException {
+        val abortReason = WaitAbortSignal.checkCurrentThread();
+        if (abortReason.isPresent()) {
+            throw new EnvironmentError(String.format("Check of %s aborted: %s", locator.description(), abortReason.get()));
+        }
+        return check.execute(proxy, locator, args);
+    }
+}
@@ -10,6 +10,7 @@ import org.aeonbits.owner.Config;
 import org.aeonbits.owner.ConfigFactory;
 import org.aeonbits.owner.Converter;
 import pages.interfaces.ViewType;
+import performance.PerformanceBudget;
 
 import java.lang.reflect.Method;
 import java.time.Duration;
@@ -138,6 +139,160 @@ public interface EnvironmentConfig extends Config {
     @DefaultValue("60000")
     Integer getPaymentProcessingTimeout();
 
+    /**
+     * Reloads the page after setting cookies in CookieManager.setAndValidateCookies, so the cookies overwritten
+     * by the application on page load are detected. Costs a full page load per attempt, thus enable it only
+     * for applications that do overwrite them.
+     */
+    @Key("cookies.validation.reloadPage")
+    @DefaultValue("false")
+    boolean isCookieValidationReloadEnabled();
+
+    /**
+     * First interval between the attempts of framework's waits (AssertionWaiter, IsOpened, Openable), in milliseconds.
+     * See PollingStrategy for details.
+     */
+    @Key("waiter.polling.initialInterval")
+    @DefaultValue("25")
+    long getPollingInitialInterval();
+
+    /**
+     * Maximum interval between the attempts of framework's waits, in milliseconds
+     */
+    @Key("waiter.polling.maxInterval")
+    @DefaultValue("200")
+    long getPollingMaxInterval();
+
+    /**
+     * Factor by which the interval between the attempts of framework's waits grows after each attempt
+     */
+    @Key("waiter.polling.multiplier")
+    @DefaultValue("2")
+    double getPollingMultiplier();
+
+    /**
+     * Fraction of the interval by which it's randomly shortened or extended, so parallel tests don't poll in lockstep
+     */
+    @Key("waiter.polling.jitter")
+    @DefaultValue("0.2")
+    double getPollingJitter();
+
+    /**
+     * Aborts page waits (opening, loaded callback, expected elements) with EnvironmentError as soon as an error page
+     * is shown, instead of waiting for their timeout. See ErrorPageWatchdog.
+     */
+    @Key("waiter.errorPageWatchdog.enabled")
+    @DefaultValue("true")
+    boolean isErrorPageWatchdogEnabled();
+
+    /**
+     * How often ErrorPageWatchdog checks the pages being waited for, at most. The check is one script call, run by
+     * the waiting thread between the attempts of its waits.
+     */
+    @Key("waiter.errorPageWatchdog.interval")
+    @DefaultValue("2000")
+    long getErrorPageWatchdogInterval();
+
+    /**
+     * Number of consecutive EnvironmentError failures of one project after which the rest of its tests (retries
+     * included) are skipped as aborted, 0 disables it. See EnvironmentCircuitBreakerExtension.
+     */
+    @Key("circuitBreaker.environmentErrors.threshold")
+    @DefaultValue("5")
+    int getEnvironmentErrorsThreshold();
+
+    /**
+     * Makes the browser itself wait for URL changes in IsOpened and Openable waits, so there's a single WebDriver
+     * round-trip per URL change (or per second, at most) instead of one per polling tick. See
+     * UriManager.waitForOpenedUri for details.
+     */
+    @Key("waiter.url.browserSide")
+    @DefaultValue("true")
+    boolean isBrowserSideUrlWaitEnabled();
+
+    /**
+     * Directory for the framework's own reports, like polling statistics. It's shared by all the test JVMs of one
+     * gradle invocation (test-retry rounds included, TracingExtension and EnvironmentCircuitBreakerExtension keep
+     * their state across them here), and the default one is wiped by the next invocation, as test dependsOn clean.
+     * Point it outside of build/ (or archive it) to keep the reports, e.g. spans.jsonl, of more runs.
+     */
+    @Key("framework.reports.dir")
+    @DefaultValue("build/reports/framework")
+    String getFrameworkReportsDir();
+
+    /**
+     * Collects Navigation Timing, Paint Timing, LCP and CLS after each BasePage.load() and Page.waitUntilNavigatedTo(),
+     * see PageLoadMetricsCollector for details
+     */
+    @Key("performance.capture.enabled")
+    @DefaultValue("true")
+    boolean isPerformanceCaptureEnabled();
+
+    /**
+     * Default mode of PerformanceBudget: FAIL makes IsWithinBudget fail on exceeded budget, WARN only reports it
+     */
+    @Key("performance.budget.mode")
+    @DefaultValue("FAIL")
+    PerformanceBudget.BudgetMode getPerformanceBudgetMode();
+
+    /**
+     * Time budget of single failure diagnostic (e.g. screenshots), for both its browser-bound capture and
+     * publishing of its attachments, see DiagnosticsPipeline
+     */
+    @Key("diagnostics.timeBudget")
+    @DefaultValue("15000")
+    long getDiagnosticsTimeBudget();
+
+    /**
+     * Number of background threads encoding and writing failure diagnostics attachments
+     */
+    @Key("diagnostics.publisher.threads")
+    @DefaultValue("2")
+    int getDiagnosticsPublisherThreads();
+
+    /**
+     * Streams console, JS exception and network events of Chromium sessions to a per-session log, so failed tests
+     * get the complete browser log of the test instead of whatever the driver still buffers. See BrowserLogRecorder.
+     */
+    @Key("diagnostics.browserLog.streaming")
+    @DefaultValue("true")
+    boolean isBrowserLogStreamingEnabled();
+
+    /**
+     * Records HAR file of every test, not only of the ones tagged with @RecordHar. See HarRecordingExtension.
+     */
+    @Key("har.recording.enabled")
+    @DefaultValue("false")
+    boolean isHarRecordingEnabled();
+
+    /**
+     * HAR of a test is attached to the report when the test fails or runs longer than this
+     */
+    @Key("har.durationBudget")
+    @DefaultValue("60000")
+    long getHarDurationBudget();
+
+    /**
+     * Emits OpenTelemetry spans for tests, Allure steps, page opening/loading and WebDriver commands, see Tracing
+     */
+    @Key("telemetry.tracing.enabled")
+    @DefaultValue("false")
+    boolean isTracingEnabled();
+
+    /**
+     * OTLP/HTTP traces endpoint, the spans are written to the framework reports dir when there's no collector running
+     */
+    @Key("telemetry.otlp.endpoint")
+    @DefaultValue("http://localhost:4318/v1/traces")
+    String getOtlpEndpoint();
+
+    /**
+     * Records latency histograms of WebDriver commands per session and per test, see CommandLatencyRecorder
+     */
+    @Key("telemetry.commandLatency.enabled")
+    @DefaultValue("true")
+    boolean isCommandLatencyEnabled();
+
     // -------------------------------------------
     // ---- ---- Webdriver configuration ---- ----
     // -------------------------------------------
@@ -151,6 +306,14 @@ public interface EnvironmentConfig extends Config {
     @Key("moonSessionCount")
     int getMoonSessionCount();
 
+    /**
+     * Maximum amount of browser sessions held in Moon at once, including the idle ones kept by SessionPool.
+     * Defaults to the sessions allocated via pipeline, see SessionSlots.
+     */
+    @DefaultValue("${moonSessionCount}")
+    @Key("moonSessionCapacity")
+    int getMoonSessionCapacity();
+
     /**
      * Sets the timeout for browser allocation in Moon Cloud, in minutes
      */
@@ -174,6 +337,14 @@ public interface EnvironmentConfig extends Config {
     @DefaultValue("false")
     Boolean isVideoEnabled();
 
+    /**
+     * Runs each test in its own incognito-like browser context within long-lived browser, instead of sharing
+     * the browser state between tests. Applicable only for Chromium-based browsers.
+     */
+    @Key("webdriver.browser.enable.isolatedContexts")
+    @DefaultValue("false")
+    Boolean isIsolatedContextsEnabled();
+
     /**
      * Sets WebDriverType to be used in testing
      *
@@ -182,6 +353,28 @@ public interface EnvironmentConfig extends Config {
     @DefaultValue("NATIVE")
     WebDriverType getWebDriverType();
 
+    /**
+     * Keeps browser sessions warm between tests instead of allocating a new browser for each of them.
+     * See SessionPool for details.
+     */
+    @Key("webdriver.session.pool.enabled")
+    @DefaultValue("false")
+    boolean isSessionPoolEnabled();
+
+    /**
+     * Maximum amount of idle sessions kept in the pool per SessionKey
+     */
+    @Key("webdriver.session.pool.maxIdle")
+    @DefaultValue(DEFAULT_PARALLELISM)
+    int getSessionPoolMaxIdle();
+
+    /**
+     * Amount of tests after which the pooled session is quit instead of being reused
+     */
+    @Key("webdriver.session.pool.maxUses")
+    @DefaultValue("50")
+    int getSessionPoolMaxUses();
+
     /**
      * Get Moon Cloud user name
      */
@@ -0,0 +1,59 @@
+package configuration;
+
+import lombok.Value;
+import lombok.val;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * JUnit parallel execution strategy that sizes the worker pool from the Moon sessions allocated by the pipeline
+ * (the 'moonSessionCount' variable), falling back to DEFAULT_PARALLELISM when there are none.
+ *
+ * The pool is never grown over that size, so there are no more tests running than sessions we've paid for.
+ * The sessions themselves (including the idle pooled ones) are limited by SessionSlots. Enabled in build.gradle via:
+ *
+ *      junit.jupiter.execution.parallel.config.strategy=custom
+ *      junit.jupiter.execution.parallel.config.custom.class=configuration.MoonParallelExecutionStrategy
+ */
+public class MoonParallelExecutionStrategy implements ParallelExecutionConfigurationStrategy {
+
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(final ConfigurationParameters configurationParameters) {
+        val parallelism = getParallelism();
+        return new MoonParallelExecutionConfiguration(parallelism, parallelism, parallelism, parallelism, KEEP_ALIVE_SECONDS);
+    }
+
+    /**
+     * @return amount of tests that can be run at once
+     */
+    public static int getParallelism() {
+        return ENVIRONMENT_CONFIG.getMoonSessionCount();
+    }
+
+    @Value
+    private static class MoonParallelExecutionConfiguration implements ParallelExecutionConfiguration {
+
+        int parallelism;
+        int minimumRunnable;
+        int maxPoolSize;
+        int corePoolSize;
+        int keepAliveSeconds;
+
+        /**
+         * Do not let ForkJoinPool compensate blocked workers with new threads, as each of them would
+         * request another browser session.
+         */
+        @Override
+        public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+            return pool -> true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package cookies;
+
+import devtools.CdpManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Accesses cookies of any domain via CDP Network domain, without navigating anywhere. Chromium-based browsers only.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class CdpCookieStore implements CookieStore {
+
+    private final String url;
+
+    static boolean isSupported() {
+        return CdpManager.isCdpSupported();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Cookie> getCookies() {
+        val result = CdpManager.executeCdpCommand("Network.getCookies", Map.of("urls", List.of(url)));
+        return ((List<Map<String, Object>>) result.get("cookies")).stream()
+                .map(CdpCookieStore::toCookie)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        log.info("Add cookie via CDP on {}: {}", url, cookie);
+        val result = CdpManager.executeCdpCommand("Network.setCookie", toCdpParams(cookie));
+        if (Boolean.FALSE.equals(result.get("success"))) {
+            throw new WebDriverException(String.format("Browser rejected %s cookie for %s", cookie.getName(), url));
+        }
+    }
+
+    @Override
+    public void deleteCookieNamed(String name) {
+        CdpManager.executeCdpCommand("Network.deleteCookies", Map.of("name", name, "url", url));
+    }
+
+    @Override
+    public <T> T visit(Supplier<T> operations) {
+        return operations.get();
+    }
+
+    @Override
+    public String toString() {
+        return url + " (via CDP)";
+    }
+
+    private Map<String, Object> toCdpParams(Cookie cookie) {
+        val params = new HashMap<String, Object>();
+        params.put("name", cookie.getName());
+        params.put("value", cookie.getValue());
+        params.put("url", url);
+        params.put("secure", cookie.isSecure());
+        params.put("httpOnly", cookie.isHttpOnly());
+        if (Objects.nonNull(cookie.getDomain())) {
+            params.put("domain", cookie.getDomain());
+        }
+        if (Objects.nonNull(cookie.getPath())) {
+            params.put("path", cookie.getPath());
+        }
+        if (Objects.nonNull(cookie.getExpiry())) {
+            params.put("expires", cookie.getExpiry().getTime() / 1000);
+        }
+        if (Objects.nonNull(cookie.getSameSite())) {
+            params.put("sameSite", cookie.getSameSite());
+        }
+        return params;
+    }
+
+    private static Cookie toCookie(Map<String, Object> cdpCookie) {
+        val expires = ((Number) cdpCookie.get("expires")).doubleValue();
+        return new Cookie.Builder((String) cdpCookie.get("name"), (String) cdpCookie.get("value"))
+                .domain((String) cdpCookie.get("domain"))
+                .path((String) cdpCookie.get("path"))
+                // session cookies have expires set to -1
+                .expiresOn(expires > 0 ? new Date((long) (expires * 1000)) : null)
+                .isSecure(Boolean.TRUE.equals(cdpCookie.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(cdpCookie.get("httpOnly")))
+                .sameSite((String) cdpCookie.get("sameSite"))
+                .build();
+    }
+}
@@ -0,0 +1,226 @@
+package cookies;
+
+import exception.MissingCookieException;
+import exception.WrongFrameworkUsageException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.openqa.selenium.Cookie;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.qameta.allure.Allure.step;
+
+/**
+ * Runs a list of cookie reads and writes within a single visit of the dummy URL, instead of opening new tab for
+ * each of them (or without opening any tab, when CDP is available). Reads done one after another share one
+ * getCookies() call. Usage example:
+ *
+ *      val results = CookieManager.forDomain(dummyUrl).batch()
+ *              .setCookie(new ConsentCookie("true"))
+ *              .deleteCookie(PromoCookie.class)
+ *              .isCookieSet(SessionCookie.class)
+ *              .getWrCookie(LanguageCookie.class)
+ *              .execute();
+ *      results.isCookieSet(SessionCookie.class);
+ *      results.getWrCookie(LanguageCookie.class);
+ *
+ * Operations are run in order they have been registered, so reads see the writes registered before them.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class CookieBatch {
+
+    private final CookieStore cookieStore;
+    private final List<Map.Entry<String, Function<CookieSnapshot, Object>>> operations = new ArrayList<>();
+
+    public CookieBatch addCookie(WrCookie wrCookie) {
+        return write("Add " + wrCookie, () -> cookieStore.addCookie(wrCookie.toCookie()));
+    }
+
+    public CookieBatch addCookie(Cookie cookie) {
+        return write("Add " + cookie.getName(), () -> cookieStore.addCookie(cookie));
+    }
+
+    public CookieBatch setCookie(WrCookie wrCookie) {
+        return write("Set " + wrCookie, () -> replaceCookie(wrCookie.toCookie()));
+    }
+
+    public CookieBatch setCookie(Cookie cookie) {
+        return write("Set " + cookie.getName(), () -> replaceCookie(cookie));
+    }
+
+    public CookieBatch deleteCookie(Class<? extends WrCookie> wrCookieClass) {
+        return write("Delete " + wrCookieClass.getSimpleName(),
+                () -> cookieStore.deleteCookieNamed(CookieManager.getWrCookieName(wrCookieClass)));
+    }
+
+    /**
+     * Sets only the cookies that are not set yet. Use CookieManager.setAndValidateCookies if the values must be
+     * checked after page refresh.
+     */
+    public CookieBatch setMissingCookies(List<WrCookie> wrCookies) {
+        operations.add(Map.entry("Set missing " + wrCookies, snapshot -> {
+            val missingCookies = wrCookies.stream()
+                    .filter(wrCookie -> !isSet(snapshot, wrCookie))
+                    .collect(Collectors.toList());
+            missingCookies.forEach(wrCookie -> replaceCookie(wrCookie.toCookie()));
+            if (!missingCookies.isEmpty()) {
+                snapshot.invalidate();
+            }
+            return missingCookies;
+        }));
+        return this;
+    }
+
+    public CookieBatch isCookieSet(WrCookie wrCookie) {
+        return read(Results.key("isCookieSet", wrCookie), snapshot -> isSet(snapshot, wrCookie));
+    }
+
+    public CookieBatch isCookieSet(Class<? extends WrCookie> wrCookieClass) {
+        return read(Results.key("isCookieSet", wrCookieClass), snapshot -> find(snapshot, wrCookieClass).isPresent());
+    }
+
+    public CookieBatch getCookie(Class<? extends WrCookie> wrCookieClass) {
+        return read(Results.key("getCookie", wrCookieClass), snapshot -> findOrMissing(snapshot, wrCookieClass));
+    }
+
+    public CookieBatch getWrCookie(Class<? extends WrCookie> wrCookieClass) {
+        return read(Results.key("getWrCookie", wrCookieClass), snapshot -> {
+            val cookie = findOrMissing(snapshot, wrCookieClass);
+            return cookie instanceof Cookie ? CookieManager.newCookie(wrCookieClass, ((Cookie) cookie).getValue()) : cookie;
+        });
+    }
+
+    /**
+     * Runs all registered operations within one tab visit of the dummy URL (or in current tab, if this batch
+     * has been created via CookieManager.batch()). On Chromium-based browsers no tab is opened, see CdpCookieStore.
+     *
+     * @return results of all read operations
+     */
+    public Results execute() {
+        val description = String.format("Run %s on %s", getOperationsDescription(), cookieStore);
+        return step(description, () -> cookieStore.visit(this::run));
+    }
+
+    private String getOperationsDescription() {
+        return operations.size() == 1 ? operations.get(0).getKey() : operations.size() + " cookie operations";
+    }
+
+    private void replaceCookie(Cookie cookie) {
+        cookieStore.deleteCookieNamed(cookie.getName());
+        cookieStore.addCookie(cookie);
+    }
+
+    private Results run() {
+        val snapshot = new CookieSnapshot(cookieStore);
+        val results = new HashMap<String, Object>();
+        operations.forEach(operation -> results.put(operation.getKey(), operation.getValue().apply(snapshot)));
+        return new Results(results);
+    }
+
+    private CookieBatch write(String description, Runnable writeOperation) {
+        operations.add(Map.entry(description, snapshot -> {
+            writeOperation.run();
+            snapshot.invalidate();
+            return true;
+        }));
+        return this;
+    }
+
+    private CookieBatch read(String key, Function<CookieSnapshot, Object> readOperation) {
+        operations.add(Map.entry(key, readOperation));
+        return this;
+    }
+
+    private static boolean isSet(CookieSnapshot snapshot, WrCookie wrCookie) {
+        return find(snapshot, wrCookie.getClass())
+                .map(cookie -> wrCookie.equals(CookieManager.newCookie(wrCookie.getClass(), cookie.getValue())))
+                .orElse(false);
+    }
+
+    private static Optional<Cookie> find(CookieSnapshot snapshot, Class<? extends WrCookie> wrCookieClass) {
+        val cookieName = CookieManager.getWrCookieName(wrCookieClass);
+        return snapshot.get().stream()
+                .filter(cookie -> Objects.equals(cookie.getName(), cookieName))
+                .findFirst();
+    }
+
+    /**
+     * Missing cookie is not an error until the test asks for it, so the exception is kept as the result
+     */
+    private static Object findOrMissing(CookieSnapshot snapshot, Class<? extends WrCookie> wrCookieClass) {
+        return find(snapshot, wrCookieClass).map(Object.class::cast).orElseGet(() ->
+                new MissingCookieException("Cannot find " + CookieManager.getWrCookieName(wrCookieClass) + " cookie"));
+    }
+
+    /**
+     * Cookies of the current page, fetched lazily and dropped after each write
+     */
+    @RequiredArgsConstructor
+    private static class CookieSnapshot {
+
+        private final CookieStore cookieStore;
+        private Set<Cookie> cookies;
+
+        Set<Cookie> get() {
+            if (Objects.isNull(cookies)) {
+                cookies = cookieStore.getCookies();
+            }
+            return cookies;
+        }
+
+        void invalidate() {
+            cookies = null;
+        }
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Results {
+
+        private final Map<String, Object> results;
+
+        public boolean isCookieSet(WrCookie wrCookie) {
+            return (Boolean) get(key("isCookieSet", wrCookie));
+        }
+
+        public boolean isCookieSet(Class<? extends WrCookie> wrCookieClass) {
+            return (Boolean) get(key("isCookieSet", wrCookieClass));
+        }
+
+        public Cookie getCookie(Class<? extends WrCookie> wrCookieClass) {
+            return (Cookie) get(key("getCookie", wrCookieClass));
+        }
+
+        public String getCookieValue(Class<? extends WrCookie> wrCookieClass) {
+            return getCookie(wrCookieClass).getValue();
+        }
+
+        public WrCookie getWrCookie(Class<? extends WrCookie> wrCookieClass) {
+            return (WrCookie) get(key("getWrCookie", wrCookieClass));
+        }
+
+        private Object get(String key) {
+            if (!results.containsKey(key)) {
+                throw new WrongFrameworkUsageException(key + " has not been registered in the CookieBatch");
+            }
+            val result = results.get(key);
+            if (result instanceof MissingCookieException) {
+                throw (MissingCookieException) result;
+            }
+            return result;
+        }
+
+        private static String key(String operation, Object subject) {
+            val subjectName = subject instanceof Class ? ((Class<?>) subject).getName() : subject.toString();
+            return operation + ":" + subjectName;
+        }
+    }
+}
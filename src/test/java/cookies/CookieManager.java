@@ -1,9 +1,7 @@
 package cookies;
 
-import com.codeborne.selenide.Stopwatch;
 import com.codeborne.selenide.WebDriverRunner;
 import exception.MissingCookieException;
-import exception.WrongFrameworkUsageException;
 import io.qameta.allure.Step;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -11,11 +9,9 @@ import lombok.val;
 import org.openqa.selenium.Cookie;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static browser.Browser.isBrowserOpen;
 import static browser.Browser.runInNewTab;
@@ -25,13 +21,14 @@ import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
 import static framework.collectors.WrCollectors.onlyOne;
 import static io.qameta.allure.Allure.step;
 import static java.lang.String.format;
-import static java.util.function.Predicate.not;
 import static matchers.WrMatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 
 @Slf4j
 public class CookieManager {
 
+    private static final long VALIDATION_ATTEMPT_WINDOW_MS = 500;
+
    /* public static ContextAwareCookieManager forContext(Class<? extends Annotation> testTag) {
         return new ContextAwareCookieManager(testTag);
     }  */
@@ -40,6 +37,13 @@ public class CookieManager {
         return new ContextAwareCookieManager(urlToSetCookieOn);
     }
 
+    /**
+     * @return batch of cookie operations to be run in the current tab, see CookieBatch
+     */
+    public static CookieBatch batch() {
+        return new CookieBatch(new WebDriverCookieStore(null));
+    }
+
     @Step("Add {0} cookie")
     public static void addCookie(WrCookie wrCookie) {
         addCookie(wrCookie.toCookie());
@@ -121,106 +125,123 @@ public class CookieManager {
 
     @Step("Set and validate cookies: {0}")
     public static void setAndValidateCookies(List<WrCookie> wrCookies) {
-        val stopwatch = new Stopwatch(ENVIRONMENT_CONFIG.getTimeout());
-        val pollingIntervalMs = 1_000;
-        AssertionError lastError;
-        // do-while loop needed as there are random cases when cookies being set have "old" values after page refresh
-        do {
-            try {
-                wrCookies.forEach(wrCookie -> {
-                    if (!wrCookie.isSet()) { CookieManager.setCookie(wrCookie); }
-                });
-                refresh();
-                assertThat(
-                        "No required cookies should be left unset",
-                        wrCookies.stream().filter(not(WrCookie::isSet)).collect(Collectors.toList()),
-                        empty());
-                return;
-            } catch (AssertionError error) {
-                lastError = error;
-            }
-            stopwatch.sleep(pollingIntervalMs);
-        } while (!stopwatch.isTimeoutReached());
-        throw lastError;
+        setAndValidateCookies(wrCookies, new WebDriverCookieStore(null), ENVIRONMENT_CONFIG.isCookieValidationReloadEnabled());
     }
 
-    private static String getWrCookieName(Class<? extends WrCookie> wrCookieClass) {
-        return newCookie(wrCookieClass, "").getName();
+    static String getWrCookieName(Class<? extends WrCookie> wrCookieClass) {
+        return WrCookieRegistry.get(wrCookieClass).getName();
     }
 
-    private static WrCookie newCookie(Class<? extends WrCookie> wrCookieClass, String value) {
-        try {
-            val constructor = wrCookieClass.getConstructor(String.class);
-            return constructor.newInstance(value);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new WrongFrameworkUsageException("Object implementing WrCookie must have public String-constructor (best to add via "
-                    + "@RequiredArgsConstructor)", e);
-        }
+    static WrCookie newCookie(Class<? extends WrCookie> wrCookieClass, String value) {
+        return WrCookieRegistry.get(wrCookieClass).newCookie(value);
+    }
+
+    /**
+     * Sets the missing cookies and watches the cookie store until all of them hold expected values, returning as
+     * soon as they do. If they don't within a single attempt window (e.g. the application has overwritten them),
+     * the missing ones are set again, until the timeout is reached.
+     *
+     * @param cookieStore store to be used within its visit
+     * @param reloadPage whether to reload the page after each set, for applications that overwrite cookies on load
+     */
+    static void setAndValidateCookies(List<WrCookie> wrCookies, CookieStore cookieStore, boolean reloadPage) {
+        val deadline = System.currentTimeMillis() + ENVIRONMENT_CONFIG.getTimeout();
+        List<WrCookie> unsetCookies;
+        do {
+            new CookieBatch(cookieStore).setMissingCookies(wrCookies).execute();
+            if (reloadPage) {
+                refresh();
+            }
+            val attemptWindowMs = Math.min(VALIDATION_ATTEMPT_WINDOW_MS, deadline - System.currentTimeMillis());
+            unsetCookies = cookieStore.awaitCookies(wrCookies, Math.max(0, attemptWindowMs));
+        } while (!unsetCookies.isEmpty() && System.currentTimeMillis() < deadline);
+        assertThat("No required cookies should be left unset", unsetCookies, empty());
     }
 
     public static class ContextAwareCookieManager {
 
         private final String dummyUrl;
+        private CookieStore cookieStore;
 
         public ContextAwareCookieManager(final String dummyUrl) {
             this.dummyUrl = dummyUrl;
         }
 
+        /**
+         * @return batch of cookie operations to be run within a single visit of the dummy URL, see CookieBatch
+         */
+        public CookieBatch batch() {
+            return new CookieBatch(getCookieStore());
+        }
+
         public void addCookie(WrCookie wrCookie) {
-            runInNewTab(() -> CookieManager.addCookie(wrCookie), dummyUrl);
+            batch().addCookie(wrCookie).execute();
         }
 
         public void addCookie(Cookie cookie) {
-            runInNewTab(() -> CookieManager.addCookie(cookie), dummyUrl);
+            batch().addCookie(cookie).execute();
         }
 
         public boolean isCookieSet(WrCookie wrCookie) {
-            return runInNewTab(() -> CookieManager.isCookieSet(wrCookie), dummyUrl);
+            return batch().isCookieSet(wrCookie).execute().isCookieSet(wrCookie);
         }
 
         public boolean isCookieSet(Class<? extends WrCookie> wrCookieClass) {
-            return runInNewTab(() -> CookieManager.isCookieSet(wrCookieClass), dummyUrl);
+            return batch().isCookieSet(wrCookieClass).execute().isCookieSet(wrCookieClass);
         }
 
         public void setCookie(WrCookie wrCookie) {
-            runInNewTab(() -> CookieManager.setCookie(wrCookie), dummyUrl);
+            batch().setCookie(wrCookie).execute();
         }
 
         public void setCookie(Cookie cookie) {
-            runInNewTab(() -> CookieManager.setCookie(cookie), dummyUrl);
+            batch().setCookie(cookie).execute();
         }
 
         public void deleteCookie(Class<? extends WrCookie> wrCookieClass) {
-            runInNewTab(() -> CookieManager.deleteCookie(wrCookieClass), dummyUrl);
+            batch().deleteCookie(wrCookieClass).execute();
         }
 
         public WrCookie getWrCookie(Class<? extends WrCookie> wrCookieClass) {
-            return runInNewTab(() -> CookieManager.getWrCookie(wrCookieClass), dummyUrl);
+            return batch().getWrCookie(wrCookieClass).execute().getWrCookie(wrCookieClass);
         }
 
         public Cookie getCookie(Class<? extends WrCookie> wrCookieClass) {
-            return runInNewTab(() -> CookieManager.getCookie(wrCookieClass), dummyUrl);
+            return batch().getCookie(wrCookieClass).execute().getCookie(wrCookieClass);
         }
 
         public String getCookieValue(Class<? extends WrCookie> wrCookieClass) {
-            return runInNewTab(() -> CookieManager.getCookieValue(wrCookieClass), dummyUrl);
+            return getCookie(wrCookieClass).getValue();
         }
 
+        /**
+         * With CDP no dummy URL tab is opened, the cookies are validated directly in the browser's cookie store.
+         * When 'cookies.validation.reloadPage' is set, the test's own tab is reloaded after each set instead,
+         * so the application gets the chance to overwrite the cookies as it would on a real visit.
+         */
         public void setAndValidateCookies(List<WrCookie> wrCookies) {
-            runInNewTab(() -> CookieManager.setAndValidateCookies(wrCookies), dummyUrl);
+            if (getCookieStore() instanceof CdpCookieStore) {
+                step("Set and validate cookies: " + wrCookies,
+                        () -> CookieManager.setAndValidateCookies(
+                                wrCookies, getCookieStore(), ENVIRONMENT_CONFIG.isCookieValidationReloadEnabled()));
+            } else {
+                runInNewTab(() -> CookieManager.setAndValidateCookies(wrCookies), dummyUrl);
+            }
         }
 
         public void setAndValidateCookies(WrCookie... wrCookies) {
-            runInNewTab(() -> CookieManager.setAndValidateCookies(wrCookies), dummyUrl);
+            setAndValidateCookies(Arrays.asList(wrCookies));
         }
 
         public void setAndValidateCookie(WrCookie wrCookie) {
-            runInNewTab(() -> CookieManager.setAndValidateCookie(wrCookie), dummyUrl);
+            setAndValidateCookies(List.of(wrCookie));
         }
 
-        private String getWrCookieName(Class<? extends WrCookie> wrCookieClass) {
-            return runInNewTab(() -> CookieManager.getWrCookieName(wrCookieClass), dummyUrl);
+        private CookieStore getCookieStore() {
+            if (Objects.isNull(cookieStore)) {
+                cookieStore = CookieStore.forDomain(dummyUrl);
+            }
+            return cookieStore;
         }
-
     }
 }
@@ -0,0 +1,66 @@
+package cookies;
+
+import lombok.val;
+import org.openqa.selenium.Cookie;
+import waiters.Poller;
+import waiters.PollingStrategy;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Low-level cookie access used by CookieBatch. Implementations decide how the cookies of given domain are reached:
+ * WebDriverCookieStore through a page of that domain, CdpCookieStore directly via CDP.
+ */
+interface CookieStore {
+
+    Set<Cookie> getCookies();
+
+    void addCookie(Cookie cookie);
+
+    void deleteCookieNamed(String name);
+
+    /**
+     * Runs the operations in a context where the methods above work, e.g. in a new tab of proper domain
+     */
+    <T> T visit(Supplier<T> operations);
+
+    /**
+     * Waits until all the cookies hold their values, returning as soon as they do. To be called within visit().
+     * By default, the store is re-read every 100 ms, as there are no events for changes of the browser's cookie jar.
+     *
+     * @return cookies that still don't hold their values once the timeout is reached
+     */
+    default List<WrCookie> awaitCookies(List<WrCookie> wrCookies, long timeoutMs) {
+        return Poller.poll("CookieStore.awaitCookies", () -> getUnsetCookies(wrCookies))
+                .until(List::isEmpty)
+                .withTimeout(timeoutMs)
+                .withStrategy(PollingStrategy.fixed(100))
+                .run()
+                .getValue();
+    }
+
+    /**
+     * Checks all the cookies with one getCookies() call
+     */
+    default List<WrCookie> getUnsetCookies(List<WrCookie> wrCookies) {
+        val cookies = getCookies();
+        return wrCookies.stream()
+                .filter(wrCookie -> cookies.stream().noneMatch(cookie ->
+                        Objects.equals(cookie.getName(), wrCookie.getName()) && Objects.equals(cookie.getValue(), wrCookie.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Chooses the cheapest store available for current browser: CDP for Chromium-based ones, new tab with
+     * the dummy URL for others.
+     *
+     * @param dummyUrl any URL of the domain to access cookies of
+     */
+    static CookieStore forDomain(String dummyUrl) {
+        return CdpCookieStore.isSupported() ? new CdpCookieStore(dummyUrl) : new WebDriverCookieStore(dummyUrl);
+    }
+}
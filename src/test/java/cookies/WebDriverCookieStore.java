@@ -0,0 +1,100 @@
+package cookies;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static browser.Browser.runInNewTab;
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Accesses cookies through WebDriver, which can reach only the cookies of the currently opened page. Thus,
+ * for other domains, the operations are run in a new tab with the dummy URL opened.
+ */
+@RequiredArgsConstructor
+class WebDriverCookieStore implements CookieStore {
+
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 500;
+    /**
+     * Resolves with names of the cookies not holding expected values, as soon as all of them do or the timeout
+     * is reached. Changes are observed via CookieStore API where available, otherwise document.cookie is re-read
+     * every 50 ms within the page. Resolves with null on non-http pages, where document.cookie is not available.
+     */
+    private static final String AWAIT_COOKIES_SCRIPT = String.join("\n",
+            "var expected = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];",
+            "if (!/^https?:$/.test(window.location.protocol)) { done(null); return; }",
+            "var getUnset = function () {",
+            "    var actual = {};",
+            "    document.cookie.split('; ').forEach(function (pair) {",
+            "        var separator = pair.indexOf('=');",
+            "        actual[pair.substring(0, separator)] = pair.substring(separator + 1);",
+            "    });",
+            "    return Object.keys(expected).filter(function (name) { return actual[name] !== expected[name]; });",
+            "};",
+            "if (getUnset().length === 0) { done([]); return; }",
+            "var finished = false, poll, timer;",
+            "var finish = function () {",
+            "    if (finished) { return; }",
+            "    finished = true;",
+            "    clearInterval(poll);",
+            "    clearTimeout(timer);",
+            "    if (window.cookieStore) { window.cookieStore.removeEventListener('change', check); }",
+            "    done(getUnset());",
+            "};",
+            "var check = function () { if (getUnset().length === 0) { finish(); } };",
+            "if (window.cookieStore) { window.cookieStore.addEventListener('change', check); }",
+            "poll = setInterval(check, 50);",
+            "timer = setTimeout(finish, timeoutMs);");
+
+    private final String dummyUrl; // null means current tab
+
+    @Override
+    public Set<Cookie> getCookies() {
+        return getWebDriver().manage().getCookies();
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        CookieManager.addCookie(cookie);
+    }
+
+    @Override
+    public void deleteCookieNamed(String name) {
+        getWebDriver().manage().deleteCookieNamed(name);
+    }
+
+    @Override
+    public <T> T visit(Supplier<T> operations) {
+        return Objects.isNull(dummyUrl) ? operations.get() : runInNewTab(operations, dummyUrl);
+    }
+
+    /**
+     * Observes the cookies within the page with one async script call, instead of polling getCookies()
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<WrCookie> awaitCookies(List<WrCookie> wrCookies, long timeoutMs) {
+        val scriptTimeoutMs = getWebDriver().manage().timeouts().getScriptTimeout().toMillis() - SCRIPT_TIMEOUT_MARGIN_MS;
+        val expected = wrCookies.stream().collect(Collectors.toMap(WrCookie::getName, WrCookie::getValue, (first, second) -> second));
+        val unsetNames = (List<String>) ((JavascriptExecutor) getWebDriver())
+                .executeAsyncScript(AWAIT_COOKIES_SCRIPT, expected, Math.max(0, Math.min(timeoutMs, scriptTimeoutMs)));
+        if (Objects.isNull(unsetNames)) {
+            return CookieStore.super.awaitCookies(wrCookies, timeoutMs);
+        }
+        return wrCookies.stream()
+                .filter(wrCookie -> unsetNames.contains(wrCookie.getName()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return Objects.isNull(dummyUrl) ? "current tab" : dummyUrl;
+    }
+}
@@ -0,0 +1,156 @@
+package cookies;
+
+import exception.WrongFrameworkUsageException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps metadata of each WrCookie class, built once on first use: the cookie name and a factory calling
+ * the public String-constructor without reflection. Use validateAll() to check all WrCookie classes
+ * on the classpath upfront, so a class without proper constructor fails the run at startup instead of mid-test.
+ */
+@Slf4j
+public class WrCookieRegistry {
+
+    private static final String PROBE_VALUE = "wr-cookie-registry-probe";
+    private static final Map<Class<? extends WrCookie>, WrCookieMetadata> registry = new ConcurrentHashMap<>();
+
+    public static WrCookieMetadata get(Class<? extends WrCookie> wrCookieClass) {
+        return registry.computeIfAbsent(wrCookieClass, WrCookieRegistry::register);
+    }
+
+    /**
+     * Registers all concrete WrCookie classes found in classpath directories (i.e. compiled test sources, not jars)
+     *
+     * @throws WrongFrameworkUsageException listing all invalid WrCookie classes
+     */
+    public static void validateAll() {
+        val start = System.currentTimeMillis();
+        val wrCookieClasses = findWrCookieClasses();
+        val errors = wrCookieClasses.stream()
+                .map(WrCookieRegistry::validate)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        if (!errors.isEmpty()) {
+            throw new WrongFrameworkUsageException("Invalid WrCookie classes found:\n" + String.join("\n", errors));
+        }
+        log.info("Validated {} WrCookie classes in {} ms", wrCookieClasses.size(), System.currentTimeMillis() - start);
+    }
+
+    private static Optional<String> validate(Class<? extends WrCookie> wrCookieClass) {
+        try {
+            get(wrCookieClass);
+            return Optional.empty();
+        } catch (WrongFrameworkUsageException e) {
+            return Optional.of(e.getMessage());
+        }
+    }
+
+    private static WrCookieMetadata register(Class<? extends WrCookie> wrCookieClass) {
+        if (Modifier.isAbstract(wrCookieClass.getModifiers())) {
+            throw new WrongFrameworkUsageException(wrCookieClass.getName() + " is abstract, use its concrete subclass instead");
+        }
+        val factory = createFactory(wrCookieClass);
+        val name = factory.apply("").getName();
+        if (Objects.isNull(name) || name.isBlank()) {
+            throw new WrongFrameworkUsageException(wrCookieClass.getName() + " must return non-blank cookie name");
+        }
+        // CookieManager recreates WrCookies from the values found in browser and compares them with expected ones
+        val probeValue = factory.apply(PROBE_VALUE).getValue();
+        if (!PROBE_VALUE.equals(probeValue)) {
+            throw new WrongFrameworkUsageException(String.format(
+                    "%s must return the constructor argument as its value, but returned '%s' for '%s'",
+                    wrCookieClass.getName(), probeValue, PROBE_VALUE));
+        }
+        return new WrCookieMetadata(wrCookieClass, name, factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<String, WrCookie> createFactory(Class<? extends WrCookie> wrCookieClass) {
+        try {
+            val lookup = MethodHandles.lookup();
+            val constructor = lookup.findConstructor(wrCookieClass, MethodType.methodType(void.class, String.class));
+            val callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    constructor,
+                    MethodType.methodType(wrCookieClass, String.class));
+            return (Function<String, WrCookie>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new WrongFrameworkUsageException(wrCookieClass.getName() + " must be public and have public String-constructor "
+                    + "(best to add via @RequiredArgsConstructor)", e);
+        }
+    }
+
+    private static List<Class<? extends WrCookie>> findWrCookieClasses() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(Paths::get)
+                .filter(Files::isDirectory)
+                .flatMap(WrCookieRegistry::findClassNames)
+                .map(WrCookieRegistry::loadClass)
+                .flatMap(Optional::stream)
+                .filter(clazz -> WrCookie.class.isAssignableFrom(clazz) && !Modifier.isAbstract(clazz.getModifiers()))
+                .map(clazz -> clazz.asSubclass(WrCookie.class))
+                .collect(Collectors.toList());
+    }
+
+    private static Stream<String> findClassNames(Path classpathDirectory) {
+        try (val files = Files.walk(classpathDirectory)) {
+            return files
+                    .map(file -> classpathDirectory.relativize(file).toString())
+                    .filter(file -> file.endsWith(".class") && !file.endsWith("module-info.class") && !file.endsWith("package-info.class"))
+                    .map(file -> file.substring(0, file.length() - ".class".length()).replace(File.separatorChar, '.'))
+                    .collect(Collectors.toList())
+                    .stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the class without initializing it, so no static code of test classes is run
+     */
+    private static Optional<Class<?>> loadClass(String className) {
+        try {
+            return Optional.of(Class.forName(className, false, WrCookieRegistry.class.getClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("Skipping {} in WrCookie validation: {}", className, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    @Value
+    public static class WrCookieMetadata {
+
+        Class<? extends WrCookie> wrCookieClass;
+        String name;
+        Function<String, WrCookie> factory;
+
+        public WrCookie newCookie(String value) {
+            return factory.apply(value);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package devtools;
+
+import com.codeborne.selenide.WebDriverRunner;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Streams console messages, JS exceptions, browser log entries and network responses of Chromium sessions for
+ * the whole life of the session. Registered as Selenide's WebDriverListener, the recording starts before the first
+ * navigation of each session:
+ *
+ *      CDP event -> bounded ring buffer (the oldest entries are dropped when full) -> per-session log file
+ *
+ * The buffer is flushed to the file in the background, so the CDP event thread never waits for the disk. Each test
+ * marks where its window of the log starts (markTestStart), failed tests attach their window (getTestLog) and
+ * passed tests just leave it behind - there's nothing to discard. The log files are deleted at the end of the run.
+ *
+ * NOTE: CDP session is bound to the tab that was current when the recording started, other tabs are not recorded.
+ *       Sessions without CDP are not recorded at all, AllureExtention falls back to LogType.BROWSER for them.
+ */
+@Slf4j
+public class BrowserLogRecorder implements WebDriverListener {
+
+    private static final int BUFFER_CAPACITY = 10_000;
+    private static final int REQUEST_URLS_CAPACITY = 1_000;
+    private static final long FLUSH_INTERVAL_MS = 250;
+    private static final Map<WebDriver, Optional<Recording>> recordings = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final List<Recording> activeRecordings = new CopyOnWriteArrayList<>();
+    private static final List<Path> logFiles = new CopyOnWriteArrayList<>();
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("browser-log-flusher").setDaemon(true).build());
+
+    static {
+        flusher.scheduleWithFixedDelay(
+                () -> activeRecordings.forEach(Recording::flush), FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void beforeGet(WebDriver driver, String url) {
+        startRecording(driver);
+    }
+
+    /**
+     * Selenide.open() navigates with navigate().to(), which doesn't go through beforeGet
+     */
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, String url) {
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            startRecording(getWebDriver());
+        }
+    }
+
+    @Override
+    public void beforeQuit(WebDriver driver) {
+        getRecording(driver).ifPresent(Recording::stop);
+    }
+
+    /**
+     * Starts the recording of the session, unless it's already recorded (or can't be)
+     */
+    public static void startRecording(WebDriver webDriver) {
+        if (!ENVIRONMENT_CONFIG.isBrowserLogStreamingEnabled()) {
+            return;
+        }
+        recordings.computeIfAbsent(CdpManager.unwrap(webDriver), driver -> CdpManager.getDevTools(driver).flatMap(Recording::start));
+    }
+
+    /**
+     * Entries recorded from now on belong to the current test
+     */
+    public static void markTestStart(WebDriver webDriver) {
+        getRecording(webDriver).ifPresent(Recording::markTestStart);
+    }
+
+    /**
+     * @return log of the current test, read lazily from the log file, or empty if the session is not recorded
+     */
+    public static Optional<Supplier<InputStream>> getTestLog(WebDriver webDriver) {
+        return getRecording(webDriver).map(Recording::getTestLog);
+    }
+
+    /**
+     * Deletes all the log files. Meant to be called once, at the end of the run, after the test logs are attached.
+     */
+    public static void shutdown() {
+        flusher.shutdownNow();
+        activeRecordings.forEach(Recording::stop);
+        logFiles.forEach(logFile -> {
+            try {
+                Files.deleteIfExists(logFile);
+            } catch (IOException e) {
+                log.warn("Could not delete browser log {}: {}", logFile, e.toString());
+            }
+        });
+    }
+
+    private static Optional<Recording> getRecording(WebDriver webDriver) {
+        return recordings.getOrDefault(CdpManager.unwrap(webDriver), Optional.empty());
+    }
+
+    private static class Recording {
+
+        private final ArrayBlockingQueue<String> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY);
+        private final Map<String, String> requestUrls = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                        return size() > REQUEST_URLS_CAPACITY;
+                    }
+                });
+        private final Path logFile;
+        private final OutputStream output;
+        private final AtomicLong droppedEntries = new AtomicLong();
+        private long writtenBytes;
+        private long testStartOffset;
+        // DevTools can't remove single listeners and clearListeners() would drop HarRecorder's ones as well,
+        // so the listeners stay subscribed and just ignore the events once the recording is stopped
+        private volatile boolean isStopped;
+
+        private Recording(Path logFile) throws IOException {
+            this.logFile = logFile;
+            this.output = new BufferedOutputStream(Files.newOutputStream(logFile));
+        }
+
+        static Optional<Recording> start(DevTools devTools) {
+            try {
+                val recording = new Recording(Files.createTempFile("browser-log-", ".log"));
+                logFiles.add(recording.logFile);
+                devTools.createSessionIfThereIsNotOne();
+                devTools.send(new Command<>("Runtime.enable", Map.of()));
+                devTools.send(new Command<>("Log.enable", Map.of()));
+                devTools.send(new Command<>("Network.enable", Map.of()));
+                devTools.addListener(event("Runtime.consoleAPICalled"), recording::onConsoleApiCalled);
+                devTools.addListener(event("Runtime.exceptionThrown"), recording::onExceptionThrown);
+                devTools.addListener(event("Log.entryAdded"), recording::onLogEntryAdded);
+                devTools.addListener(event("Network.requestWillBeSent"), recording::onRequestWillBeSent);
+                devTools.addListener(event("Network.responseReceived"), recording::onResponseReceived);
+                devTools.addListener(event("Network.loadingFailed"), recording::onLoadingFailed);
+                activeRecordings.add(recording);
+                return Optional.of(recording);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not start browser log recording: {}", e.toString());
+                return Optional.empty();
+            }
+        }
+
+        synchronized void flush() {
+            if (isStopped) {
+                return;
+            }
+            val entries = new ArrayList<String>();
+            buffer.drainTo(entries);
+            val dropped = droppedEntries.getAndSet(0);
+            if (dropped > 0) {
+                entries.add(0, String.format("... %d entries dropped, the log buffer was full", dropped));
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+            try {
+                val bytes = entries.stream()
+                        .map(entry -> entry + "\n")
+                        .collect(Collectors.joining())
+                        .getBytes(StandardCharsets.UTF_8);
+                output.write(bytes);
+                output.flush();
+                writtenBytes += bytes.length;
+            } catch (IOException e) {
+                log.warn("Could not write browser log {}, stopping the recording: {}", logFile, e.toString());
+                release();
+            }
+        }
+
+        synchronized void markTestStart() {
+            flush();
+            testStartOffset = writtenBytes;
+        }
+
+        synchronized Supplier<InputStream> getTestLog() {
+            flush();
+            val start = testStartOffset;
+            val length = writtenBytes - testStartOffset;
+            // the file is append-only, so the window stays the same no matter how much is recorded afterwards
+            return () -> {
+                try {
+                    val channel = FileChannel.open(logFile);
+                    channel.position(start);
+                    return ByteStreams.limit(Channels.newInputStream(channel), length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        }
+
+        synchronized void stop() {
+            if (isStopped) {
+                return;
+            }
+            flush();
+            release();
+        }
+
+        private synchronized void release() {
+            isStopped = true;
+            activeRecordings.remove(this);
+            try {
+                output.close();
+            } catch (IOException e) {
+                log.debug("Could not close browser log {}: {}", logFile, e.toString());
+            }
+        }
+
+        private void record(String entry) {
+            if (isStopped) {
+                return;
+            }
+            val timestampedEntry = Instant.now() + " " + entry;
+            while (!buffer.offer(timestampedEntry)) {
+                // called on CDP event thread only, flush() just drains, so this can't spin for long
+                if (Objects.nonNull(buffer.poll())) {
+                    droppedEntries.incrementAndGet();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onConsoleApiCalled(Map<String, Object> params) {
+            val args = (List<Map<String, Object>>) params.getOrDefault("args", List.of());
+            record(String.format("[console.%s] %s", params.get("type"), args.stream()
+                    .map(Recording::describeRemoteObject)
+                    .collect(Collectors.joining(" "))));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onExceptionThrown(Map<String, Object> params) {
+            val details = (Map<String, Object>) params.get("exceptionDetails");
+            val exception = (Map<String, Object>) details.get("exception");
+            record("[exception] " + (Objects.isNull(exception) ? details.get("text") : describeRemoteObject(exception)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onLogEntryAdded(Map<String, Object> params) {
+            val entry = (Map<String, Object>) params.get("entry");
+            val url = (String) entry.getOrDefault("url", "");
+            if (url.startsWith("chrome-extension")) {
+                return;
+            }
+            record(String.format("[%s.%s] %s %s", entry.get("source"), entry.get("level"), entry.get("text"), url).trim());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onRequestWillBeSent(Map<String, Object> params) {
+            val request = (Map<String, Object>) params.get("request");
+            requestUrls.put((String) params.get("requestId"), request.get("method") + " " + request.get("url"));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onResponseReceived(Map<String, Object> params) {
+            val response = (Map<String, Object>) params.get("response");
+            val request = requestUrls.getOrDefault((String) params.get("requestId"), "" + response.get("url"));
+            record(String.format("[network] %s %s", ((Number) response.get("status")).intValue(), request));
+        }
+
+        private void onLoadingFailed(Map<String, Object> params) {
+            val request = requestUrls.getOrDefault((String) params.get("requestId"), "request " + params.get("requestId"));
+            record(String.format("[network] FAILED %s %s", params.get("errorText"), request));
+        }
+
+        private static String describeRemoteObject(Map<String, Object> remoteObject) {
+            if (remoteObject.containsKey("value")) {
+                return String.valueOf(remoteObject.get("value"));
+            }
+            return String.valueOf(remoteObject.getOrDefault("description", remoteObject.get("type")));
+        }
+
+        private static Event<Map<String, Object>> event(String method) {
+            return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package devtools;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.remote.Augmenter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Gives access to Chrome DevTools Protocol commands of Chromium-based sessions, both native and remote
+ * (Moon/Selenoid). Example usage:
+ *
+ *      if (CdpManager.isCdpSupported()) {
+ *          CdpManager.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+ *      }
+ *
+ * Callers are expected to have a WebDriver-only fallback for other browsers.
+ * Commands reference: https://chromedevtools.github.io/devtools-protocol/
+ */
+@Slf4j
+public class CdpManager {
+
+    private static final Set<String> CHROMIUM_BROWSERS = Set.of("chrome", "chromium", "msedge", "MicrosoftEdge");
+    private static final Map<WebDriver, Optional<HasCdp>> cdpDrivers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static boolean isCdpSupported() {
+        return isCdpSupported(getWebDriver());
+    }
+
+    public static boolean isCdpSupported(WebDriver webDriver) {
+        return getCdpDriver(webDriver).isPresent();
+    }
+
+    public static Map<String, Object> executeCdpCommand(String command, Map<String, Object> params) {
+        return executeCdpCommand(getWebDriver(), command, params);
+    }
+
+    /**
+     * @param webDriver session to execute the command in
+     * @param command CDP method name, e.g. "Network.getAllCookies"
+     * @param params CDP method params
+     * @return result of the command
+     * @throws UnsupportedOperationException when the session is not a Chromium-based one
+     */
+    public static Map<String, Object> executeCdpCommand(WebDriver webDriver, String command, Map<String, Object> params) {
+        return getCdpDriver(webDriver)
+                .orElseThrow(() -> new UnsupportedOperationException("CDP is not supported by " + webDriver))
+                .executeCdpCommand(command, params);
+    }
+
+    /**
+     * @return DevTools connection of the session, for subscribing to CDP events
+     */
+    public static Optional<DevTools> getDevTools(WebDriver webDriver) {
+        return getCdpDriver(webDriver)
+                .filter(HasDevTools.class::isInstance)
+                .flatMap(driver -> ((HasDevTools) driver).maybeGetDevTools());
+    }
+
+    /**
+     * Selenide wraps the driver with listeners, let's get to the real one
+     */
+    public static WebDriver unwrap(WebDriver webDriver) {
+        var driver = webDriver;
+        while (!(driver instanceof HasCdp) && driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+
+    private static Optional<HasCdp> getCdpDriver(WebDriver webDriver) {
+        // keyed by the real driver, so the wrapped and unwrapped one share the (possibly augmented) CDP driver
+        return cdpDrivers.computeIfAbsent(unwrap(webDriver), CdpManager::resolveCdpDriver);
+    }
+
+    private static Optional<HasCdp> resolveCdpDriver(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            return Optional.of((HasCdp) driver);
+        }
+        if (!(driver instanceof HasCapabilities) || !isChromium((HasCapabilities) driver)) {
+            return Optional.empty();
+        }
+        try {
+            // remote Chromium sessions get CDP support via goog/cdp/execute endpoint
+            val augmentedDriver = new Augmenter().augment(driver);
+            return augmentedDriver instanceof HasCdp ? Optional.of((HasCdp) augmentedDriver) : Optional.empty();
+        } catch (WebDriverException e) {
+            log.warn("Cannot enable CDP for {}: {}", driver, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isChromium(HasCapabilities driver) {
+        return CHROMIUM_BROWSERS.contains(driver.getCapabilities().getBrowserName());
+    }
+}
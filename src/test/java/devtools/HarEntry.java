@@ -0,0 +1,209 @@
+package devtools;
+
+import lombok.val;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Single request/response pair assembled from CDP Network events, converted to HAR 1.2 entry once the loading
+ * is finished (or failed). Timings follow the HAR spec: -1 when not applicable, ssl is included in connect.
+ */
+class HarEntry {
+
+    private final Map<String, Object> request;
+    private final double startTimestamp;
+    private final double wallTime;
+    private final String resourceType;
+    private Map<String, Object> response;
+    private boolean isServedFromMemoryCache;
+    private long contentSize;
+    private String errorText;
+
+    @SuppressWarnings("unchecked")
+    HarEntry(Map<String, Object> requestWillBeSent) {
+        this.request = (Map<String, Object>) requestWillBeSent.get("request");
+        this.startTimestamp = toDouble(requestWillBeSent.get("timestamp"));
+        this.wallTime = toDouble(requestWillBeSent.get("wallTime"));
+        this.resourceType = (String) requestWillBeSent.get("type");
+    }
+
+    void setResponse(Map<String, Object> response) {
+        this.response = response;
+    }
+
+    void markServedFromMemoryCache() {
+        isServedFromMemoryCache = true;
+    }
+
+    void addContentSize(long dataLength) {
+        contentSize += dataLength;
+    }
+
+    void setErrorText(String errorText) {
+        this.errorText = errorText;
+    }
+
+    /**
+     * @param finishedTimestamp CDP monotonic time (in seconds) of loadingFinished/loadingFailed
+     * @param encodedDataLength bytes actually transferred over the network
+     */
+    Map<String, Object> toHar(double finishedTimestamp, long encodedDataLength) {
+        val entry = new LinkedHashMap<String, Object>();
+        entry.put("startedDateTime", Instant.ofEpochMilli(Math.round(wallTime * 1000)).toString());
+        entry.put("time", Math.max(0, (finishedTimestamp - startTimestamp) * 1000));
+        entry.put("request", toHarRequest());
+        entry.put("response", toHarResponse(encodedDataLength));
+        entry.put("cache", Map.of());
+        entry.put("timings", toHarTimings(finishedTimestamp));
+        if (Objects.nonNull(response) && response.containsKey("remoteIPAddress")) {
+            entry.put("serverIPAddress", response.get("remoteIPAddress"));
+        }
+        entry.put("_resourceType", resourceType);
+        entry.put("_cacheStatus", getCacheStatus());
+        if (Objects.nonNull(errorText)) {
+            entry.put("_error", errorText);
+        }
+        return entry;
+    }
+
+    private Map<String, Object> toHarRequest() {
+        val url = (String) request.get("url");
+        val postData = (String) request.get("postData");
+        val harRequest = new LinkedHashMap<String, Object>();
+        harRequest.put("method", request.get("method"));
+        harRequest.put("url", url);
+        harRequest.put("httpVersion", Objects.isNull(response) ? "" : response.getOrDefault("protocol", ""));
+        harRequest.put("cookies", List.of());
+        harRequest.put("headers", toHarHeaders(request.get("headers")));
+        harRequest.put("queryString", toHarQueryString(url));
+        if (Objects.nonNull(postData)) {
+            harRequest.put("postData", Map.of(
+                    "mimeType", getHeader(request.get("headers"), "Content-Type"),
+                    "text", postData));
+        }
+        harRequest.put("headersSize", -1);
+        harRequest.put("bodySize", Objects.isNull(postData) ? 0 : postData.length());
+        return harRequest;
+    }
+
+    private Map<String, Object> toHarResponse(long encodedDataLength) {
+        val harResponse = new LinkedHashMap<String, Object>();
+        val isReceived = Objects.nonNull(response);
+        harResponse.put("status", isReceived ? ((Number) response.get("status")).intValue() : 0);
+        harResponse.put("statusText", isReceived ? response.getOrDefault("statusText", "") : "");
+        harResponse.put("httpVersion", isReceived ? response.getOrDefault("protocol", "") : "");
+        harResponse.put("cookies", List.of());
+        harResponse.put("headers", isReceived ? toHarHeaders(response.get("headers")) : List.of());
+        harResponse.put("content", Map.of(
+                "size", contentSize,
+                "mimeType", isReceived ? response.getOrDefault("mimeType", "") : ""));
+        harResponse.put("redirectURL", isReceived ? getHeader(response.get("headers"), "Location") : "");
+        harResponse.put("headersSize", -1);
+        harResponse.put("bodySize", -1);
+        harResponse.put("_transferSize", encodedDataLength);
+        return harResponse;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toHarTimings(double finishedTimestamp) {
+        val total = Math.max(0, (finishedTimestamp - startTimestamp) * 1000);
+        val timing = Objects.isNull(response) ? null : (Map<String, Object>) response.get("timing");
+        val harTimings = new LinkedHashMap<String, Object>();
+        if (Objects.isNull(timing)) {
+            // served from cache or failed before sending, there's nothing but the total
+            harTimings.put("blocked", 0);
+            harTimings.put("dns", -1);
+            harTimings.put("connect", -1);
+            harTimings.put("send", 0);
+            harTimings.put("wait", 0);
+            harTimings.put("receive", total);
+            harTimings.put("ssl", -1);
+            return harTimings;
+        }
+        // all the timing offsets are in ms, relative to requestTime
+        val requestTime = toDouble(timing.get("requestTime")) * 1000;
+        val dnsStart = toDouble(timing.get("dnsStart"));
+        val connectStart = toDouble(timing.get("connectStart"));
+        val sslStart = toDouble(timing.get("sslStart"));
+        val sendStart = toDouble(timing.get("sendStart"));
+        val sendEnd = toDouble(timing.get("sendEnd"));
+        val receiveHeadersEnd = toDouble(timing.get("receiveHeadersEnd"));
+        val firstStart = Stream.of(dnsStart, connectStart, sendStart).filter(start -> start >= 0).findFirst().orElse(0.0);
+        harTimings.put("blocked", Math.max(0, requestTime - startTimestamp * 1000) + firstStart);
+        harTimings.put("dns", dnsStart < 0 ? -1 : toDouble(timing.get("dnsEnd")) - dnsStart);
+        harTimings.put("connect", connectStart < 0 ? -1 : toDouble(timing.get("connectEnd")) - connectStart);
+        harTimings.put("send", Math.max(0, sendEnd - sendStart));
+        harTimings.put("wait", Math.max(0, receiveHeadersEnd - sendEnd));
+        harTimings.put("receive", Math.max(0, finishedTimestamp * 1000 - (requestTime + receiveHeadersEnd)));
+        harTimings.put("ssl", sslStart < 0 ? -1 : toDouble(timing.get("sslEnd")) - sslStart);
+        return harTimings;
+    }
+
+    private String getCacheStatus() {
+        if (isServedFromMemoryCache) {
+            return "memory";
+        }
+        if (Objects.isNull(response)) {
+            return "none";
+        }
+        if (Boolean.TRUE.equals(response.get("fromDiskCache"))) {
+            return "disk";
+        }
+        if (Boolean.TRUE.equals(response.get("fromServiceWorker"))) {
+            return "service-worker";
+        }
+        if (Boolean.TRUE.equals(response.get("fromPrefetchCache"))) {
+            return "prefetch";
+        }
+        return "network";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> toHarHeaders(Object headers) {
+        if (Objects.isNull(headers)) {
+            return List.of();
+        }
+        return ((Map<String, Object>) headers).entrySet().stream()
+                .map(header -> Map.<String, Object>of("name", header.getKey(), "value", String.valueOf(header.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String getHeader(Object headers, String name) {
+        if (Objects.isNull(headers)) {
+            return "";
+        }
+        return ((Map<String, Object>) headers).entrySet().stream()
+                .filter(header -> header.getKey().equalsIgnoreCase(name))
+                .map(header -> String.valueOf(header.getValue()))
+                .findFirst()
+                .orElse("");
+    }
+
+    private static List<Map<String, Object>> toHarQueryString(String url) {
+        String query;
+        try {
+            query = URI.create(url).getRawQuery();
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+        if (Objects.isNull(query) || query.isEmpty()) {
+            return List.of();
+        }
+        return Stream.of(query.split("&"))
+                .map(parameter -> parameter.split("=", 2))
+                .map(pair -> Map.<String, Object>of("name", pair[0], "value", pair.length > 1 ? pair[1] : ""))
+                .collect(Collectors.toList());
+    }
+
+    private static double toDouble(Object value) {
+        return Objects.isNull(value) ? -1 : ((Number) value).doubleValue();
+    }
+}
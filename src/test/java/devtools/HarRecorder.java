@@ -0,0 +1,203 @@
+package devtools;
+
+import com.codeborne.selenide.WebDriverRunner;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Records network traffic of Chromium sessions as HAR file, streamed entry by entry by HarWriter. Usage:
+ *
+ *      HarRecorder.start(harFile);     // on the test thread, the session may be started later on
+ *      ...                             // test body
+ *      HarRecorder.stop();             // finishes the HAR file
+ *
+ * Each session is subscribed to CDP Network events once, the events are passed to the HAR file of the test that
+ * currently uses the session. Registered as Selenide's WebDriverListener, so sessions started after start() are
+ * subscribed before their first navigation. Use HarRecordingExtension rather than calling these methods directly.
+ *
+ * NOTE: requests still in flight when the recording stops are not included.
+ */
+@Slf4j
+public class HarRecorder implements WebDriverListener {
+
+    private static final Map<WebDriver, Optional<NetworkSubscription>> subscriptions =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<HarWriter> currentWriter = new ThreadLocal<>();
+
+    @Override
+    public void beforeGet(WebDriver driver, String url) {
+        val writer = currentWriter.get();
+        if (Objects.nonNull(writer)) {
+            subscribe(driver).ifPresent(subscription -> subscription.record(writer));
+        }
+    }
+
+    /**
+     * Selenide.open() navigates with navigate().to(), which doesn't go through beforeGet
+     */
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, String url) {
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            beforeGet(getWebDriver(), url);
+        }
+    }
+
+    /**
+     * Starts recording the session of current thread to given file, the recording is skipped for sessions without CDP
+     */
+    public static void start(Path harFile) {
+        try {
+            val writer = HarWriter.open(harFile);
+            currentWriter.set(writer);
+            if (WebDriverRunner.hasWebDriverStarted()) {
+                subscribe(getWebDriver()).ifPresent(subscription -> subscription.record(writer));
+            }
+        } catch (IOException e) {
+            log.warn("Could not start HAR recording to {}: {}", harFile, e.toString());
+        }
+    }
+
+    /**
+     * @return the finished HAR file, empty if nothing has been recorded
+     */
+    public static Optional<Path> stop() {
+        val writer = currentWriter.get();
+        currentWriter.remove();
+        if (Objects.isNull(writer)) {
+            return Optional.empty();
+        }
+        synchronized (subscriptions) {
+            subscriptions.values().forEach(subscription -> subscription.ifPresent(s -> s.stopRecording(writer)));
+        }
+        writer.close();
+        return Optional.of(writer.getHarFile());
+    }
+
+    private static Optional<NetworkSubscription> subscribe(WebDriver webDriver) {
+        return subscriptions.computeIfAbsent(
+                CdpManager.unwrap(webDriver),
+                driver -> CdpManager.getDevTools(driver).flatMap(NetworkSubscription::subscribe));
+    }
+
+    private static class NetworkSubscription {
+
+        private final AtomicReference<HarWriter> writer = new AtomicReference<>();
+        private final Map<String, HarEntry> pendingEntries = new ConcurrentHashMap<>();
+
+        static Optional<NetworkSubscription> subscribe(DevTools devTools) {
+            try {
+                val subscription = new NetworkSubscription();
+                devTools.createSessionIfThereIsNotOne();
+                devTools.send(new Command<>("Network.enable", Map.of()));
+                devTools.addListener(event("Network.requestWillBeSent"), subscription::onRequestWillBeSent);
+                devTools.addListener(event("Network.requestServedFromCache"), subscription::onRequestServedFromCache);
+                devTools.addListener(event("Network.responseReceived"), subscription::onResponseReceived);
+                devTools.addListener(event("Network.dataReceived"), subscription::onDataReceived);
+                devTools.addListener(event("Network.loadingFinished"), subscription::onLoadingFinished);
+                devTools.addListener(event("Network.loadingFailed"), subscription::onLoadingFailed);
+                return Optional.of(subscription);
+            } catch (RuntimeException e) {
+                log.warn("Could not subscribe to network events: {}", e.toString());
+                return Optional.empty();
+            }
+        }
+
+        void record(HarWriter harWriter) {
+            // called before each navigation, entries in flight belong to the same test unless the writer changes
+            if (writer.getAndSet(harWriter) != harWriter) {
+                pendingEntries.clear();
+            }
+        }
+
+        void stopRecording(HarWriter harWriter) {
+            if (writer.compareAndSet(harWriter, null)) {
+                pendingEntries.clear();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onRequestWillBeSent(Map<String, Object> params) {
+            if (Objects.isNull(writer.get())) {
+                return;
+            }
+            val requestId = (String) params.get("requestId");
+            // redirects reuse the request id, the redirect response finishes the previous entry
+            val redirectResponse = (Map<String, Object>) params.get("redirectResponse");
+            val redirectedEntry = pendingEntries.remove(requestId);
+            if (Objects.nonNull(redirectResponse) && Objects.nonNull(redirectedEntry)) {
+                redirectedEntry.setResponse(redirectResponse);
+                write(redirectedEntry.toHar(toDouble(params.get("timestamp")), toLong(redirectResponse.get("encodedDataLength"))));
+            }
+            pendingEntries.put(requestId, new HarEntry(params));
+        }
+
+        private void onRequestServedFromCache(Map<String, Object> params) {
+            getPendingEntry(params).ifPresent(HarEntry::markServedFromMemoryCache);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onResponseReceived(Map<String, Object> params) {
+            getPendingEntry(params).ifPresent(entry -> entry.setResponse((Map<String, Object>) params.get("response")));
+        }
+
+        private void onDataReceived(Map<String, Object> params) {
+            getPendingEntry(params).ifPresent(entry -> entry.addContentSize(toLong(params.get("dataLength"))));
+        }
+
+        private void onLoadingFinished(Map<String, Object> params) {
+            Optional.ofNullable(pendingEntries.remove((String) params.get("requestId")))
+                    .ifPresent(entry -> write(entry.toHar(
+                            toDouble(params.get("timestamp")), toLong(params.get("encodedDataLength")))));
+        }
+
+        private void onLoadingFailed(Map<String, Object> params) {
+            Optional.ofNullable(pendingEntries.remove((String) params.get("requestId")))
+                    .ifPresent(entry -> {
+                        entry.setErrorText((String) params.get("errorText"));
+                        write(entry.toHar(toDouble(params.get("timestamp")), 0));
+                    });
+        }
+
+        private Optional<HarEntry> getPendingEntry(Map<String, Object> params) {
+            return Optional.ofNullable(pendingEntries.get((String) params.get("requestId")));
+        }
+
+        private void write(Map<String, Object> harEntry) {
+            val harWriter = writer.get();
+            if (Objects.nonNull(harWriter)) {
+                harWriter.write(harEntry);
+            }
+        }
+
+        private static Event<Map<String, Object>> event(String method) {
+            return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+        }
+
+        private static double toDouble(Object value) {
+            return Objects.isNull(value) ? 0 : ((Number) value).doubleValue();
+        }
+
+        private static long toLong(Object value) {
+            return Objects.isNull(value) ? 0 : ((Number) value).longValue();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package devtools;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes HAR 1.2 archive entry by entry, so only the entries still in flight are kept in memory. The archive is
+ * valid JSON only after close().
+ */
+@Slf4j
+class HarWriter implements Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Getter
+    private final Path harFile;
+    private final JsonGenerator generator;
+    private boolean isClosed;
+
+    private HarWriter(Path harFile, JsonGenerator generator) {
+        this.harFile = harFile;
+        this.generator = generator;
+    }
+
+    static HarWriter open(Path harFile) throws IOException {
+        val generator = OBJECT_MAPPER.getFactory().createGenerator(Files.newOutputStream(harFile), JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("log");
+        generator.writeStringField("version", "1.2");
+        generator.writeObjectField("creator", Map.of("name", HarRecorder.class.getSimpleName(), "version", "1.0"));
+        generator.writeArrayFieldStart("pages");
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("entries");
+        generator.flush();
+        return new HarWriter(harFile, generator);
+    }
+
+    synchronized void write(Map<String, Object> entry) {
+        if (isClosed) {
+            return;
+        }
+        try {
+            generator.writeObject(entry);
+            generator.flush();
+        } catch (IOException e) {
+            log.warn("Could not write HAR entry to {}: {}", harFile, e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException e) {
+            log.warn("Could not finish HAR file {}: {}", harFile, e.toString());
+        }
+    }
+}
@@ -8,4 +8,8 @@ public class EnvironmentError extends RuntimeException {
     public EnvironmentError(final String message) {
         super(message);
     }
+
+    public EnvironmentError(final String message, final Throwable cause) {
+        super(message, cause);
+    }
 }
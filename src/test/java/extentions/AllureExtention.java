@@ -1,55 +1,60 @@
 package extentions;
 
+import com.codeborne.selenide.WebDriverRunner;
 import com.codeborne.selenide.logevents.SelenideLogger;
-import com.google.common.io.ByteSource;
-import io.qameta.allure.Allure;
-import io.qameta.allure.Attachment;
-import lombok.SneakyThrows;
+import devtools.BrowserLogRecorder;
+import extentions.DiagnosticsPipeline.PendingAttachment;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.apache.commons.lang3.tuple.Triple;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.openqa.selenium.Cookie;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.logging.LogEntry;
 import org.openqa.selenium.logging.LogType;
 import org.opentest4j.TestAbortedException;
-import ru.yandex.qatools.ashot.AShot;
-import ru.yandex.qatools.ashot.shooting.ShootingStrategies;
+import screenshots.FullPageScreenshot;
 
-import javax.imageio.ImageIO;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
 import static java.util.logging.Level.WARNING;
 
 @Slf4j
-public class AllureExtention implements BeforeAllCallback, AfterTestExecutionCallback, AfterAllCallback {
+public class AllureExtention implements BeforeAllCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback, AfterAllCallback {
 
-    private static final int SCREENSHOT_SCROLL_TIMEOUT = 1000;
-    private static final AShot SCREENSHOT_FACTORY = new AShot()
-            .shootingStrategy(ShootingStrategies.viewportPasting(SCREENSHOT_SCROLL_TIMEOUT));
-
-    private final List<Map.Entry<String, Runnable>> diagnostics = List.of(
-            Map.entry("Console logs", AllureExtention::collectLogs),
-            Map.entry("Browser cookies", AllureExtention::collectCookies),
+    private final List<Map.Entry<String, Function<WebDriver, List<PendingAttachment>>>> diagnostics = List.of(
+            Map.entry("Console logs", AllureExtention::captureLogs),
+            Map.entry("Browser cookies", AllureExtention::captureCookies),
             // Diagnostics below may change current window in webdriver
-            Map.entry("Current URLs", AllureExtention::collectUrls),
-            Map.entry("Pages source codes", AllureExtention::collectSourceCodes),
-            Map.entry("Screenshots", AllureExtention::collectScreenshots) // keep this one last as it interacts with page! (scrolling)
+            Map.entry("Current URLs", AllureExtention::captureUrls),
+            Map.entry("Pages source codes", AllureExtention::captureSourceCodes),
+            Map.entry("Screenshots", AllureExtention::captureScreenshots) // keep this one last as it interacts with page! (scrolling)
     );
 
     @Override
     public void beforeAll(final ExtensionContext context) throws Exception {
         SelenideLogger.addListener("WrSelenideListener", new WrSelenideListener());
+        RunHooks.once(context, DiagnosticsPipeline.class, () -> {
+            if (ENVIRONMENT_CONFIG.isBrowserLogStreamingEnabled()) {
+                WebDriverRunner.addListener(new BrowserLogRecorder());
+            }
+        }, () -> {
+            // browser logs are attached from their files, those can be deleted only once everything is published
+            DiagnosticsPipeline.awaitPublishing();
+            BrowserLogRecorder.shutdown();
+        });
     }
 
     /**
@@ -62,121 +67,91 @@ public class AllureExtention implements BeforeAllCallback, AfterTestExecutionCal
     }
 
     @Override
-    public void afterTestExecution(final ExtensionContext context) {
-        checkAndRunDiagnostics(context);
-    }
-
-    public static byte[] getFullScreenshot() {
-        try {
-            val screenshotImage = SCREENSHOT_FACTORY
-                    .takeScreenshot(getWebDriver())
-                    .getImage();
-            val baos = new ByteArrayOutputStream();
-            ImageIO.write(screenshotImage, "png", baos);
-            return baos.toByteArray();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public void beforeTestExecution(final ExtensionContext context) {
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            BrowserLogRecorder.markTestStart(getWebDriver());
         }
-        return null;
-    }
-
-    public static byte[] getViewPortScreenshot() {
-        return ((TakesScreenshot) getWebDriver()).getScreenshotAs(OutputType.BYTES);
     }
 
-    public static void collectScreenshots() {
-        getWebDriver().getWindowHandles().stream()
-                .map(AllureExtention::getScreenshotTripleOf)
-                .forEach(AllureExtention::attachScreenshotTriple);
+    @Override
+    public void afterTestExecution(final ExtensionContext context) {
+        checkAndRunDiagnostics(context);
     }
 
     private void checkAndRunDiagnostics(final ExtensionContext context) {
         val optionalException = context.getExecutionException();
         boolean isTestFailed = optionalException.isPresent() && !(optionalException.get() instanceof TestAbortedException);
-        if (isTestFailed) {
-            diagnostics.forEach(AllureExtention::runDiagnostic);
+        if (isTestFailed && WebDriverRunner.hasWebDriverStarted()) {
+            DiagnosticsPipeline.run(diagnostics, getWebDriver());
         }
     }
 
-    private static Triple<String, byte[], byte[]> getScreenshotTripleOf(String windowHandle) {
-        getWebDriver().switchTo().window(windowHandle);
-        return Triple.of(getWebDriver().getTitle(), getViewPortScreenshot(), getFullScreenshot());
-    }
-
-    @SneakyThrows
-    private static void attachScreenshotTriple(Triple<String, byte[], byte[]> titleAndScreenshots) {
-        val title = titleAndScreenshots.getLeft();
-        val viewPortScreenshot = titleAndScreenshots.getMiddle();
-        val fullScreenshot = titleAndScreenshots.getRight();
-        Allure.addAttachment(
-                String.format("View-port screenshot for '%s'", title),
-                "image/png",
-                ByteSource.wrap(viewPortScreenshot).openStream(),
-                "png");
-        Allure.addAttachment(
-                String.format("Full-view screenshot for '%s'", title),
-                "image/png",
-                ByteSource.wrap(fullScreenshot).openStream(),
-                "png");
-    }
-
-    @SuppressWarnings("UnusedReturnValue")
-    @Attachment(value = "Browser console log", type = "text/plain")
-    private static String collectLogs() {
-        return getConsoleLogs().stream()
+    private static List<PendingAttachment> captureLogs(WebDriver webDriver) {
+        val testLog = BrowserLogRecorder.getTestLog(webDriver);
+        if (testLog.isPresent()) {
+            return List.of(PendingAttachment.textFile("Browser console and network log", testLog.get()));
+        }
+        val logEntries = webDriver.manage().logs().get(LogType.BROWSER).getAll();
+        return List.of(PendingAttachment.text("Browser console log", () -> logEntries.stream()
+                .filter(l -> !l.getLevel().equals(WARNING))
+                .filter(l -> !l.getMessage().contains("chrome-extension"))
                 .map(LogEntry::toString)
-                .collect(Collectors.joining("\n"));
+                .collect(Collectors.joining("\n"))));
     }
 
-    @SuppressWarnings("UnusedReturnValue")
-    @Attachment(value = "Currently opened URLs", type = "text/plain")
-    private static String collectUrls() {
-        return getWebDriver().getWindowHandles().stream()
+    private static List<PendingAttachment> captureUrls(WebDriver webDriver) {
+        val urls = webDriver.getWindowHandles().stream()
                 .map(handle ->
                         String.format(
                                 "%s - '%s'",
-                                getWebDriver().switchTo().window(handle).getCurrentUrl(),
-                                getWebDriver().getTitle()))
+                                webDriver.switchTo().window(handle).getCurrentUrl(),
+                                webDriver.getTitle()))
                 .collect(Collectors.joining("\n"));
+        return List.of(PendingAttachment.text("Currently opened URLs", () -> urls));
     }
 
-    private static void collectSourceCodes() {
-        getWebDriver().getWindowHandles()
-                .forEach(windowHandle -> {
-                    getWebDriver().switchTo().window(windowHandle);
-                    Allure.addAttachment(
-                            String.format("Source code for '%s'", getWebDriver().getTitle()),
-                            "text/html",
-                            getWebDriver().getPageSource(),
-                            "html");
-                });
+    /**
+     * Each source is hashed as it's captured, the ones identical to a source of another window (e.g. the same page
+     * opened twice) only reference it, so that there's a single copy held until publishing
+     */
+    private static List<PendingAttachment> captureSourceCodes(WebDriver webDriver) {
+        val capturedHashes = new HashSet<String>();
+        return webDriver.getWindowHandles().stream()
+                .map(windowHandle -> {
+                    webDriver.switchTo().window(windowHandle);
+                    val sourceCode = PendingAttachment.html(
+                            String.format("Source code for '%s'", webDriver.getTitle()),
+                            webDriver.getPageSource());
+                    return capturedHashes.add(sourceCode.getContentHash()) ? sourceCode : sourceCode.withStoredContent();
+                })
+                .collect(Collectors.toList());
     }
 
-    @SuppressWarnings("UnusedReturnValue")
-    @Attachment(value = "Browser cookies", type = "text/plain")
-    private static String collectCookies() {
-        return getWebDriver().manage().getCookies().stream()
+    private static List<PendingAttachment> captureCookies(WebDriver webDriver) {
+        val cookies = webDriver.manage().getCookies();
+        return List.of(PendingAttachment.text("Browser cookies", () -> cookies.stream()
                 .map(Cookie::toString)
-                .collect(Collectors.joining("\n\n"));
+                .collect(Collectors.joining("\n\n"))));
     }
 
-    private static List<LogEntry> getConsoleLogs() {
-        return getWebDriver().manage().logs().get(LogType.BROWSER)
-                .getAll()
-                .stream()
-                .filter(l -> !l.getLevel().equals(WARNING))
-                .filter(l -> !l.getMessage().contains("chrome-extension"))
+    /**
+     * Only the browser-bound part runs here, the full-view screenshot is encoded/decoded by the background publisher
+     */
+    private static List<PendingAttachment> captureScreenshots(WebDriver webDriver) {
+        return webDriver.getWindowHandles().stream()
+                .flatMap(windowHandle -> {
+                    webDriver.switchTo().window(windowHandle);
+                    val title = webDriver.getTitle();
+                    val viewPortScreenshot = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+                    val fullScreenshot = FullPageScreenshot.forSession(webDriver).capture(webDriver);
+                    return Stream.of(
+                            PendingAttachment.png(
+                                    String.format("View-port screenshot for '%s'", title),
+                                    viewPortScreenshot),
+                            PendingAttachment.png(
+                                    String.format("Full-view screenshot for '%s'", title),
+                                    fullScreenshot));
+                })
                 .collect(Collectors.toList());
     }
-
-    private static void runDiagnostic(Map.Entry<String, Runnable> diagnostic) {
-        val diagnosticName = diagnostic.getKey();
-        try {
-            diagnostic.getValue().run();
-            log.info(diagnosticName + " diagnostic: DONE");
-        } catch (Exception e) {
-            val errorMsg = diagnosticName + " diagnostic: ERROR - " + e.toString();
-            log.error(errorMsg);
-        }
-    }
 }
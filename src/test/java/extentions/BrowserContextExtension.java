@@ -0,0 +1,38 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import sessions.BrowserContextManager;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Runs each test in its own browser context (see BrowserContextManager), opened once the test uses the browser.
+ * Must be registered after SessionPoolExtension, so the context is disposed before the session goes back to the pool.
+ */
+public class BrowserContextExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        if (!ENVIRONMENT_CONFIG.isIsolatedContextsEnabled()) {
+            return;
+        }
+        RunHooks.once(context, BrowserContextManager.LazyOpener.class,
+                () -> WebDriverRunner.addListener(new BrowserContextManager.LazyOpener()));
+    }
+
+    @Override
+    public void beforeEach(final ExtensionContext context) {
+        if (ENVIRONMENT_CONFIG.isIsolatedContextsEnabled()) {
+            BrowserContextManager.request();
+        }
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        BrowserContextManager.close();
+    }
+}
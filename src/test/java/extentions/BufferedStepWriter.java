@@ -0,0 +1,86 @@
+package extentions;
+
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.listener.FixtureLifecycleListener;
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import lombok.Value;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Buffers finished steps of the current thread and writes them to the Allure lifecycle in a batch, at the next step
+ * boundary: when a step starts or stops, or when the fixture/test stops. That's the last moment the parent is still
+ * open and the steps still end up in the right order.
+ *
+ * The flushing is triggered by FlushListener, registered via META-INF/services.
+ */
+public class BufferedStepWriter {
+
+    private static final ThreadLocal<List<BufferedStep>> bufferedSteps = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * @param step finished step, with its status, start and stop set
+     */
+    public static void add(AllureLifecycle lifecycle, String parentUuid, StepResult step) {
+        bufferedSteps.get().add(new BufferedStep(lifecycle, parentUuid, step));
+    }
+
+    public static void flush() {
+        val steps = bufferedSteps.get();
+        if (steps.isEmpty()) {
+            return;
+        }
+        val batch = List.copyOf(steps);
+        // cleared before writing, as the writing notifies FlushListener again
+        steps.clear();
+        batch.forEach(BufferedStep::write);
+    }
+
+    @Value
+    private static class BufferedStep {
+
+        AllureLifecycle lifecycle;
+        String parentUuid;
+        StepResult step;
+
+        void write() {
+            val uuid = UUID.randomUUID().toString();
+            val start = step.getStart();
+            val stop = step.getStop();
+            // startStep() works with any kind of parent (test, fixture or step), it just overrides the timing
+            lifecycle.startStep(parentUuid, uuid, step);
+            lifecycle.stopStep(uuid);
+            step.setStart(start).setStop(stop);
+        }
+    }
+
+    public static class FlushListener implements StepLifecycleListener, FixtureLifecycleListener, TestLifecycleListener {
+
+        @Override
+        public void beforeStepStart(StepResult result) {
+            flush();
+        }
+
+        @Override
+        public void beforeStepStop(StepResult result) {
+            flush();
+        }
+
+        @Override
+        public void beforeFixtureStop(FixtureResult result) {
+            flush();
+        }
+
+        @Override
+        public void beforeTestStop(TestResult result) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import extentions.DiagnosticsPipeline.PendingAttachment;
+import lombok.val;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import telemetry.CommandLatencyRecorder;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Attaches latencies of the WebDriver commands sent by each test to the report, and reports the latencies of the
+ * whole run once all tests are done. See CommandLatencyRecorder.
+ */
+public class CommandLatencyExtension implements BeforeAllCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        if (!ENVIRONMENT_CONFIG.isCommandLatencyEnabled()) {
+            return;
+        }
+        RunHooks.once(context, CommandLatencyRecorder.class,
+                () -> WebDriverRunner.addListener(new CommandLatencyRecorder()),
+                CommandLatencyRecorder::report);
+    }
+
+    @Override
+    public void beforeTestExecution(final ExtensionContext context) {
+        CommandLatencyRecorder.startTest();
+    }
+
+    @Override
+    public void afterTestExecution(final ExtensionContext context) {
+        val summary = CommandLatencyRecorder.getTestSummary();
+        if (!summary.isEmpty()) {
+            DiagnosticsPipeline.attach(PendingAttachment.text("WebDriver command latencies", () -> summary));
+        }
+    }
+}
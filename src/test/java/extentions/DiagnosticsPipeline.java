@@ -0,0 +1,273 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CharSource;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureConstants;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import screenshots.Screenshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Runs failure diagnostics in two stages:
+ *
+ *      capture - browser-bound part (e.g. taking the screenshot), runs one diagnostic at a time against the session
+ *                of the failed test, as the browser can't do much in parallel anyway
+ *      publish - encoding and writing of the captured data as Allure attachments, runs on a bounded background
+ *                executor, so the test releases its worker and browser session as soon as the capture is done
+ *
+ * Attachments are linked to the current test/step right away (on the test thread), only the attachment files are
+ * written in the background. Page sources and screenshots are content-addressed, see linkStoredAttachment(). Each diagnostic has its own time budget ('diagnostics.timeBudget'), when the capture
+ * doesn't fit into it, the remaining browser-bound diagnostics are skipped and the session is quit: it's most likely
+ * stuck, and the capture thread would otherwise keep driving it while the next test uses it.
+ * With no test running (e.g. in afterAll) there's nothing to attach the diagnostics to, so they are skipped.
+ */
+@Slf4j
+public class DiagnosticsPipeline {
+
+    private static final int PUBLISHER_QUEUE_CAPACITY = 64;
+    private static final Set<String> storedSources = ConcurrentHashMap.newKeySet();
+    private static final ExecutorService captureExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("diagnostics-capture-%d").setDaemon(true).build());
+    // when the queue is full, the test thread publishes on its own rather than piling up captured data in memory
+    private static final ThreadPoolExecutor publisherExecutor = new ThreadPoolExecutor(
+            ENVIRONMENT_CONFIG.getDiagnosticsPublisherThreads(),
+            ENVIRONMENT_CONFIG.getDiagnosticsPublisherThreads(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(PUBLISHER_QUEUE_CAPACITY),
+            new ThreadFactoryBuilder().setNameFormat("diagnostics-publisher-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * Captures all the diagnostics one by one and hands their attachments over to the background publisher.
+     *
+     * @param webDriver session of the failed test, passed explicitly as the capture doesn't run on the test thread
+     */
+    public static void run(List<Map.Entry<String, Function<WebDriver, List<PendingAttachment>>>> diagnostics,
+                           WebDriver webDriver) {
+        if (Allure.getLifecycle().getCurrentTestCaseOrStep().isEmpty()) {
+            log.warn("Skipping diagnostics: no test is running to attach them to");
+            return;
+        }
+        for (val diagnostic : diagnostics) {
+            val diagnosticName = diagnostic.getKey();
+            val deadline = System.currentTimeMillis() + ENVIRONMENT_CONFIG.getDiagnosticsTimeBudget();
+            try {
+                val attachments = capture(diagnostic.getValue(), webDriver, deadline);
+                attachments.forEach(attachment -> publish(diagnosticName, attachment, deadline));
+                log.info(diagnosticName + " diagnostic: DONE");
+            } catch (TimeoutException e) {
+                log.error("{} diagnostic: ERROR - capture exceeded {} ms time budget, skipping remaining diagnostics"
+                        + " and quitting the session", diagnosticName, ENVIRONMENT_CONFIG.getDiagnosticsTimeBudget());
+                quit(webDriver);
+                return;
+            } catch (Exception e) {
+                val cause = e instanceof ExecutionException ? e.getCause() : e;
+                log.error(diagnosticName + " diagnostic: ERROR - " + cause.toString());
+            }
+        }
+    }
+
+    /**
+     * Publishes single attachment captured outside of the diagnostics (e.g. a file recorded during the test),
+     * within the time budget of one diagnostic.
+     */
+    public static void attach(PendingAttachment attachment) {
+        publish(attachment.getName(), attachment, System.currentTimeMillis() + ENVIRONMENT_CONFIG.getDiagnosticsTimeBudget());
+    }
+
+    /**
+     * Waits for all pending attachments to be written. Meant to be called once, at the end of the run.
+     */
+    public static void awaitPublishing() {
+        captureExecutor.shutdownNow();
+        publisherExecutor.shutdown();
+        try {
+            if (!publisherExecutor.awaitTermination(ENVIRONMENT_CONFIG.getDiagnosticsTimeBudget(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} diagnostics attachments were not written in time and are missing in the report",
+                        publisherExecutor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<PendingAttachment> capture(Function<WebDriver, List<PendingAttachment>> diagnostic,
+                                                   WebDriver webDriver,
+                                                   long deadline) throws Exception {
+        val capture = captureExecutor.submit(() -> diagnostic.apply(webDriver));
+        try {
+            return capture.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } finally {
+            capture.cancel(true);
+        }
+    }
+
+    /**
+     * The capture thread can't be stopped while it waits for the browser, so the session it drives is quit instead.
+     * SessionPool sees the session is no longer bound and recycles it, SessionSlots frees its slot.
+     */
+    private static void quit(WebDriver webDriver) {
+        try {
+            if (WebDriverRunner.hasWebDriverStarted() && WebDriverRunner.getWebDriver() == webDriver) {
+                WebDriverRunner.closeWebDriver();
+            } else {
+                webDriver.quit();
+            }
+        } catch (WebDriverException e) {
+            log.warn("Could not quit the session stuck in diagnostics: {}", e.toString());
+        }
+    }
+
+    private static void publish(String diagnosticName, PendingAttachment attachment, long deadline) {
+        val lifecycle = Allure.getLifecycle();
+        if (lifecycle.getCurrentTestCaseOrStep().isEmpty()) {
+            log.warn("{} diagnostic: skipping '{}' attachment, no test is running", diagnosticName, attachment.getName());
+            return;
+        }
+        // must be called on the test thread, that's how the attachment gets linked to the current test/step
+        val source = Objects.isNull(attachment.getContentHash())
+                ? lifecycle.prepareAttachment(attachment.getName(), attachment.getType(), attachment.getExtension())
+                : linkStoredAttachment(lifecycle, attachment);
+        if (Objects.nonNull(attachment.getContentHash()) && !storedSources.add(source)) {
+            log.debug("'{}' attachment is already stored as {}", attachment.getName(), source);
+            return;
+        }
+        CompletableFuture
+                .runAsync(() -> lifecycle.writeAttachment(source, attachment.getContent().get()), publisherExecutor)
+                .orTimeout(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, e) -> {
+                    if (e == null) {
+                        return;
+                    }
+                    if (Throwables.getCausalChain(e).stream().anyMatch(FileAlreadyExistsException.class::isInstance)) {
+                        // stored by another test JVM
+                        return;
+                    }
+                    log.error("{} diagnostic: ERROR - could not write '{}' attachment: {}",
+                            diagnosticName, attachment.getName(), e.toString());
+                });
+    }
+
+    /**
+     * Content-addressed attachments are named after their hash, so identical ones (e.g. the same page source captured
+     * in each retry of a flaky test) are stored once and referenced from every test/step they belong to.
+     */
+    private static String linkStoredAttachment(AllureLifecycle lifecycle, PendingAttachment pendingAttachment) {
+        val source = pendingAttachment.getContentHash() + AllureConstants.ATTACHMENT_FILE_SUFFIX
+                + "." + pendingAttachment.getExtension();
+        val attachment = new Attachment()
+                .setName(pendingAttachment.getName())
+                .setType(pendingAttachment.getType())
+                .setSource(source);
+        val current = lifecycle.getCurrentTestCaseOrStep();
+        if (current.isEmpty()) {
+            log.error("Could not link '{}' attachment: no test is running", pendingAttachment.getName());
+        } else if (current.equals(lifecycle.getCurrentTestCase())) {
+            lifecycle.updateTestCase(testResult -> testResult.getAttachments().add(attachment));
+        } else {
+            lifecycle.updateStep(stepResult -> stepResult.getAttachments().add(attachment));
+        }
+        return source;
+    }
+
+    /**
+     * Captured diagnostic data, content is computed (e.g. PNG encoded) and streamed to the attachment file by the
+     * background publisher. Attachments with content hash are stored once per run, no matter how many times
+     * they are captured.
+     */
+    @Value
+    public static class PendingAttachment {
+
+        String name;
+        String type;
+        String extension;
+        String contentHash;
+        Supplier<InputStream> content;
+
+        public static PendingAttachment text(String name, Supplier<String> content) {
+            return new PendingAttachment(name, "text/plain", "txt", null, () -> toStream(content.get()));
+        }
+
+        public static PendingAttachment textFile(String name, Supplier<InputStream> content) {
+            return new PendingAttachment(name, "text/plain", "txt", null, content);
+        }
+
+        public static PendingAttachment har(String name, Path harFile) {
+            return new PendingAttachment(name, "application/json", "har", null, () -> {
+                try {
+                    return Files.newInputStream(harFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        public static PendingAttachment html(String name, String content) {
+            return new PendingAttachment(name, "text/html", "html",
+                    Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString(), () -> toStream(content));
+        }
+
+        public static PendingAttachment png(String name, byte[] content) {
+            return new PendingAttachment(name, "image/png", "png",
+                    Hashing.sha256().hashBytes(content).toString(), () -> new ByteArrayInputStream(content));
+        }
+
+        /**
+         * @return the same attachment, only referencing the content stored under its hash by an attachment published
+         * before it, so that the content itself isn't held for the publisher once more
+         */
+        public PendingAttachment withStoredContent() {
+            return new PendingAttachment(name, type, extension, Objects.requireNonNull(contentHash), () -> {
+                throw new IllegalStateException(String.format("'%s' content is expected to be stored already", name));
+            });
+        }
+
+        public static PendingAttachment png(String name, Screenshot screenshot) {
+            return new PendingAttachment(name, "image/png", "png", screenshot.getContentHash(), screenshot.getPng());
+        }
+
+        private static InputStream toStream(String content) {
+            // encoded while being streamed, rather than copied in full to a byte array first
+            try {
+                return CharSource.wrap(content).asByteSource(StandardCharsets.UTF_8).openStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package extentions;
+
+import exception.EnvironmentError;
+import helpers.ProjectDetectionExtension;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.TestAbortedException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+import static helpers.ProjectDetectionExtension.getTestNameFrom;
+
+/**
+ * Circuit breaker per project (the @Tag resolved by ProjectDetectionExtension): once its tests fail with
+ * EnvironmentError 'circuitBreaker.environmentErrors.threshold' times in a row, the rest of them are skipped
+ * as aborted instead of failing one by one against the dead environment. Passed test resets the count. The breaker
+ * is checked before each test class too, so a skipped class doesn't run its @BeforeAll, and EnvironmentError thrown
+ * from @BeforeAll counts as one more error in a row.
+ *
+ * The open breaker is stored in the framework reports dir (cleaned before each run), so the gradle test-retry
+ * rounds, which run in new JVMs, don't retry the project's failures either.
+ *
+ * Must be registered right after ProjectDetectionExtension, before any extension that opens the browser.
+ */
+@Slf4j
+public class EnvironmentCircuitBreakerExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback,
+        AfterAllCallback {
+
+    private static final String OPEN_BREAKERS_DIR = "open-circuit-breakers";
+    private static final Map<String, AtomicInteger> consecutiveErrors = new ConcurrentHashMap<>();
+    private static final Map<String, String> openBreakers = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        abortIfOpen(context);
+    }
+
+    @Override
+    public void beforeEach(final ExtensionContext context) {
+        abortIfOpen(context);
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        if (ENVIRONMENT_CONFIG.getEnvironmentErrorsThreshold() <= 0) {
+            return;
+        }
+        val executionException = context.getExecutionException();
+        if (executionException.isPresent() && executionException.get() instanceof TestAbortedException) {
+            return;
+        }
+        val environmentError = executionException.flatMap(EnvironmentCircuitBreakerExtension::findEnvironmentError);
+        if (environmentError.isPresent()) {
+            countError(context, environmentError.get());
+        } else {
+            getConsecutiveErrors(context).set(0);
+        }
+    }
+
+    /**
+     * Only the failures of the class-level set-up and tear-down are seen here, the tests are counted in afterEach()
+     */
+    @Override
+    public void afterAll(final ExtensionContext context) {
+        context.getExecutionException()
+                .flatMap(EnvironmentCircuitBreakerExtension::findEnvironmentError)
+                .ifPresent(environmentError -> countError(context, environmentError));
+    }
+
+    private static void abortIfOpen(ExtensionContext context) {
+        if (ENVIRONMENT_CONFIG.getEnvironmentErrorsThreshold() <= 0) {
+            return;
+        }
+        val project = ProjectDetectionExtension.getProjectNameFrom(context);
+        getOpenBreakerReason(project).ifPresent(reason -> Assumptions.abort(String.format(
+                "Skipped, as the environment of %s project is considered down: %s", project, reason)));
+    }
+
+    private static void countError(ExtensionContext context, EnvironmentError environmentError) {
+        val threshold = ENVIRONMENT_CONFIG.getEnvironmentErrorsThreshold();
+        if (threshold <= 0) {
+            return;
+        }
+        val project = ProjectDetectionExtension.getProjectNameFrom(context);
+        val errors = getConsecutiveErrors(context);
+        if (errors.incrementAndGet() >= threshold && !openBreakers.containsKey(project)) {
+            val reason = String.format("%d consecutive environment errors, the last one in %s: %s",
+                    errors.get(), getTestNameFrom(context), environmentError.getMessage());
+            log.warn("Skipping the remaining tests of {} project, {}", project, reason);
+            open(project, reason);
+        }
+    }
+
+    private static AtomicInteger getConsecutiveErrors(ExtensionContext context) {
+        return consecutiveErrors.computeIfAbsent(ProjectDetectionExtension.getProjectNameFrom(context), key -> new AtomicInteger());
+    }
+
+    private static Optional<EnvironmentError> findEnvironmentError(Throwable throwable) {
+        for (var cause = throwable; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof EnvironmentError) {
+                return Optional.of((EnvironmentError) cause);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> getOpenBreakerReason(String project) {
+        return Optional.ofNullable(openBreakers.computeIfAbsent(project, key -> {
+            val breakerFile = getBreakerFile(key);
+            try {
+                return Files.exists(breakerFile) ? Files.readString(breakerFile) : null;
+            } catch (IOException e) {
+                log.warn("Could not read circuit breaker of {} project: {}", key, e.toString());
+                return null;
+            }
+        }));
+    }
+
+    private static void open(String project, String reason) {
+        openBreakers.put(project, reason);
+        val breakerFile = getBreakerFile(project);
+        try {
+            Files.createDirectories(breakerFile.getParent());
+            Files.writeString(breakerFile, reason);
+        } catch (IOException e) {
+            log.warn("Could not store circuit breaker of {} project, retries will not skip its tests: {}", project, e.toString());
+        }
+    }
+
+    private static Path getBreakerFile(String project) {
+        return Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir(), OPEN_BREAKERS_DIR, project);
+    }
+}
@@ -0,0 +1,95 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import devtools.HarRecorder;
+import extentions.DiagnosticsPipeline.PendingAttachment;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.TestAbortedException;
+import tags.RecordHar;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Records network traffic of the tests tagged with @RecordHar (or all the tests, when 'har.recording.enabled'
+ * is set) as HAR file per test, see HarRecorder. HAR is attached to the report when the test fails or exceeds
+ * its duration budget, otherwise it's deleted right away.
+ */
+@Slf4j
+public class HarRecordingExtension implements BeforeAllCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(HarRecordingExtension.class);
+    private static final String START_TIME = "startTime";
+    private static final List<Path> attachedHarFiles = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        // sessions are subscribed before their first navigation, so the listener has to be there before they start
+        RunHooks.once(context, HarRecorder.class, () -> WebDriverRunner.addListener(new HarRecorder()), () -> {
+            DiagnosticsPipeline.awaitPublishing();
+            attachedHarFiles.forEach(HarRecordingExtension::delete);
+        });
+    }
+
+    @Override
+    public void beforeTestExecution(final ExtensionContext context) throws IOException {
+        if (!isHarRecorded(context)) {
+            return;
+        }
+        context.getStore(NAMESPACE).put(START_TIME, System.currentTimeMillis());
+        HarRecorder.start(Files.createTempFile(context.getRequiredTestMethod().getName() + "-", ".har"));
+    }
+
+    @Override
+    public void afterTestExecution(final ExtensionContext context) {
+        val harFile = HarRecorder.stop();
+        if (harFile.isEmpty()) {
+            return;
+        }
+        val duration = System.currentTimeMillis() - context.getStore(NAMESPACE).remove(START_TIME, Long.class);
+        val durationBudget = getDurationBudget(context);
+        val executionException = context.getExecutionException();
+        val isTestFailed = executionException.isPresent() && !(executionException.get() instanceof TestAbortedException);
+        if (!isTestFailed && duration <= durationBudget) {
+            delete(harFile.get());
+            return;
+        }
+        if (!isTestFailed) {
+            log.warn("{} took {} ms, exceeding its {} ms duration budget, attaching HAR",
+                    context.getDisplayName(), duration, durationBudget);
+        }
+        attachedHarFiles.add(harFile.get());
+        DiagnosticsPipeline.attach(PendingAttachment.har("Network traffic (HAR)", harFile.get()));
+    }
+
+    private static boolean isHarRecorded(ExtensionContext context) {
+        return ENVIRONMENT_CONFIG.isHarRecordingEnabled() || context.getTags().contains("har");
+    }
+
+    private static long getDurationBudget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getTestMethod(), RecordHar.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getTestClass(), RecordHar.class))
+                .map(RecordHar::durationBudgetMs)
+                .filter(durationBudget -> durationBudget >= 0)
+                .orElse(ENVIRONMENT_CONFIG.getHarDurationBudget());
+    }
+
+    private static void delete(Path harFile) {
+        try {
+            Files.deleteIfExists(harFile);
+        } catch (IOException e) {
+            log.warn("Could not delete HAR file {}: {}", harFile, e.toString());
+        }
+    }
+}
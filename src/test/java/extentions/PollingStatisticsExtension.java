@@ -0,0 +1,16 @@
+package extentions;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import waiters.PollingStatistics;
+
+/**
+ * Reports PollingStatistics once, after all tests are done.
+ */
+public class PollingStatisticsExtension implements BeforeAllCallback {
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        RunHooks.afterRun(context, PollingStatistics.class, PollingStatistics::report);
+    }
+}
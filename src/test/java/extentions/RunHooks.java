@@ -0,0 +1,35 @@
+package extentions;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Run-scoped hooks of the extensions, e.g. registering a WebDriver listener and writing a report at the end:
+ *
+ *      RunHooks.once(context, CommandLatencyRecorder.class,
+ *              () -> WebDriverRunner.addListener(new CommandLatencyRecorder()),
+ *              CommandLatencyRecorder::report);
+ *
+ * The set-up is run by the first test class asking for the key, the after-run hook once all tests of the JVM are done
+ * (they are kept in JUnit's root store, which is closed at the very end).
+ */
+class RunHooks {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RunHooks.class);
+
+    static void once(ExtensionContext context, Object key, Runnable setUp) {
+        once(context, key, setUp, () -> {
+        });
+    }
+
+    static void once(ExtensionContext context, Object key, Runnable setUp, Runnable afterRun) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(key, k -> {
+            setUp.run();
+            return (ExtensionContext.Store.CloseableResource) afterRun::run;
+        });
+    }
+
+    static void afterRun(ExtensionContext context, Object key, Runnable afterRun) {
+        once(context, key, () -> {
+        }, afterRun);
+    }
+}
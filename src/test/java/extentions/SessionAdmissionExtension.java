@@ -0,0 +1,43 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import sessions.SessionSlots;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+import static helpers.ProjectDetectionExtension.getTestNameFrom;
+
+/**
+ * Admission control for browser sessions: a test that may start a new session starts only when one of the session
+ * slots (see SessionSlots) is free, instead of failing on browser allocation timeout in Moon. The slot is then held
+ * until the session is quit. The time each test spent in the queue is logged and attached to the report.
+ *
+ * With SessionPool enabled, the pool admits (and reports) the sessions it allocates itself, as reused sessions need
+ * no new slot.
+ *
+ * Must be registered before any extension that opens the browser (e.g. SessionPoolExtension).
+ */
+public class SessionAdmissionExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        RunHooks.once(context, SessionSlots.class, () -> WebDriverRunner.addListener(new SessionSlots()));
+    }
+
+    @Override
+    public void beforeEach(final ExtensionContext context) throws InterruptedException {
+        if (ENVIRONMENT_CONFIG.isSessionPoolEnabled() || WebDriverRunner.hasWebDriverStarted()) {
+            return;
+        }
+        SessionSlots.reportQueueWait(getTestNameFrom(context), SessionSlots.admit());
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        // the test didn't start any session after all
+        SessionSlots.dismiss();
+    }
+}
@@ -0,0 +1,49 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import lombok.val;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import sessions.SessionPool;
+import sessions.SessionResetter;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Hands out warm browser sessions from SessionPool to each test and returns them afterwards.
+ * Does nothing unless 'webdriver.session.pool.enabled' is set (i.e. -PsessionPool=true), except for recording
+ * the visited origins (see SessionResetter), which BaseTest::resetBrowserSession needs as well.
+ */
+public class SessionPoolExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        RunHooks.once(context, SessionResetter.OriginRecorder.class,
+                () -> WebDriverRunner.addListener(new SessionResetter.OriginRecorder()));
+        if (!ENVIRONMENT_CONFIG.isSessionPoolEnabled()) {
+            return;
+        }
+        RunHooks.afterRun(context, SessionPool.class, SessionPool::shutdown);
+    }
+
+    @Override
+    public void beforeEach(final ExtensionContext context) {
+        if (!ENVIRONMENT_CONFIG.isSessionPoolEnabled()) {
+            return;
+        }
+        val session = SessionPool.acquire();
+        Allure.addAttachment("Browser session", String.format(
+                "%s, allocated in %d ms%nPool: %s", session, session.getAllocationMillis(), SessionPool.getMetrics()));
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        if (!ENVIRONMENT_CONFIG.isSessionPoolEnabled()) {
+            return;
+        }
+        SessionPool.release();
+    }
+}
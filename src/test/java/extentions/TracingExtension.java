@@ -0,0 +1,92 @@
+package extentions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import configuration.EnvironmentConfig;
+import helpers.ProjectDetectionExtension;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.TestAbortedException;
+import telemetry.Tracing;
+import telemetry.WebDriverCommandTracer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Traces each test as the root span of its steps, page loads and WebDriver commands, see Tracing. Registered right
+ * after ProjectDetectionExtension, so the span covers the other extensions' callbacks, but the project is known.
+ */
+@Slf4j
+public class TracingExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TracingExtension.class);
+    private static final String TEST_ATTEMPTS_DIR = "test-attempts";
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        RunHooks.once(context, Tracing.class, () -> {
+            if (Tracing.isEnabled()) {
+                WebDriverRunner.addListener(new WebDriverCommandTracer());
+            }
+        }, Tracing::shutdown);
+    }
+
+    @Override
+    public void beforeEach(final ExtensionContext context) {
+        if (!Tracing.isEnabled()) {
+            return;
+        }
+        val spanBuilder = Tracing.getTracer().spanBuilder(context.getDisplayName())
+                .setAttribute(Tracing.VIEW_TYPE, EnvironmentConfig.getViewType().toString())
+                .setAttribute(Tracing.RETRY_COUNT, countPreviousAttempts(context));
+        ProjectDetectionExtension.getCurrentProjectName().ifPresent(project -> spanBuilder.setAttribute(Tracing.PROJECT, project));
+        val span = spanBuilder.startSpan();
+        val store = context.getStore(NAMESPACE);
+        store.put(Span.class, span);
+        store.put(Scope.class, span.makeCurrent());
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        val store = context.getStore(NAMESPACE);
+        val span = store.remove(Span.class, Span.class);
+        val scope = store.remove(Scope.class, Scope.class);
+        if (Objects.isNull(span)) {
+            return;
+        }
+        context.getExecutionException()
+                .filter(e -> !(e instanceof TestAbortedException))
+                .ifPresent(e -> Tracing.recordFailure(span, e));
+        span.end();
+        scope.close();
+    }
+
+    /**
+     * Retries of gradle test-retry plugin run in new JVMs of the same test task, so the attempts are counted in files
+     * of the reports dir. The counts start over with each gradle invocation, its clean wipes the default reports dir.
+     */
+    private static long countPreviousAttempts(ExtensionContext context) {
+        val attemptsFile = Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir(), TEST_ATTEMPTS_DIR,
+                DigestUtils.sha256Hex(context.getUniqueId()));
+        try {
+            val previousAttempts = Files.exists(attemptsFile) ? Long.parseLong(Files.readString(attemptsFile).trim()) : 0;
+            Files.createDirectories(attemptsFile.getParent());
+            Files.writeString(attemptsFile, String.valueOf(previousAttempts + 1));
+            return previousAttempts;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Could not count attempts of {}: {}", context.getDisplayName(), e.toString());
+            return 0;
+        }
+    }
+}
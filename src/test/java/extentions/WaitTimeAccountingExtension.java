@@ -0,0 +1,40 @@
+package extentions;
+
+import com.codeborne.selenide.logevents.SelenideLogger;
+import extentions.DiagnosticsPipeline.PendingAttachment;
+import lombok.val;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import waiters.SelenideWaitListener;
+import waiters.WaitTimeAccounting;
+
+/**
+ * Attaches the breakdown of each test's time spent waiting to the report, and reports the most costly waits of
+ * the whole run once all tests are done. See WaitTimeAccounting.
+ */
+public class WaitTimeAccountingExtension implements BeforeAllCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final SelenideWaitListener SELENIDE_WAIT_LISTENER = new SelenideWaitListener();
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        RunHooks.afterRun(context, WaitTimeAccounting.class, WaitTimeAccounting::report);
+    }
+
+    @Override
+    public void beforeTestExecution(final ExtensionContext context) {
+        // Selenide listeners are bound to the thread, and tests of one class may run on several ones
+        SelenideLogger.addListener(SelenideWaitListener.class.getSimpleName(), SELENIDE_WAIT_LISTENER);
+        WaitTimeAccounting.startTest();
+    }
+
+    @Override
+    public void afterTestExecution(final ExtensionContext context) {
+        val breakdown = WaitTimeAccounting.finishTest();
+        if (!breakdown.isEmpty()) {
+            DiagnosticsPipeline.attach(PendingAttachment.text("Time spent waiting", () -> breakdown));
+        }
+    }
+}
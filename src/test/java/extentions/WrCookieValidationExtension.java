@@ -0,0 +1,16 @@
+package extentions;
+
+import cookies.WrCookieRegistry;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Validates all WrCookie classes once per run, before the first test class starts, see WrCookieRegistry.
+ */
+public class WrCookieValidationExtension implements BeforeAllCallback {
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        RunHooks.once(context, WrCookieRegistry.class, WrCookieRegistry::validateAll);
+    }
+}
@@ -4,20 +4,33 @@ import com.codeborne.selenide.logevents.LogEvent;
 import com.codeborne.selenide.logevents.LogEventListener;
 import io.qameta.allure.Allure;
 import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Stage;
 import io.qameta.allure.model.Status;
 import io.qameta.allure.model.StatusDetails;
 import io.qameta.allure.model.StepResult;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
-import java.util.UUID;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import static io.qameta.allure.util.ResultsUtils.getStatus;
 import static io.qameta.allure.util.ResultsUtils.getStatusDetails;
 
+/**
+ * Adds Allure steps only for events that are assertions described via `.because()` call. Called for every Selenide
+ * event, so the other events are recognised without building any strings and without touching the Allure lifecycle.
+ * Finished steps are handed over to BufferedStepWriter.
+ */
 @Slf4j
 public class WrSelenideListener implements LogEventListener {
 
+    // that's how ExplainedCondition describes itself in the event subject
+    private static final String BECAUSE_MARKER = " (because ";
+
     private final AllureLifecycle lifecycle;
+    private final ThreadLocal<Deque<PendingStep>> pendingSteps = ThreadLocal.withInitial(ArrayDeque::new);
 
     public WrSelenideListener() {
         this(Allure.getLifecycle());
@@ -29,33 +42,50 @@ public class WrSelenideListener implements LogEventListener {
 
     @Override
     public void beforeEvent(final LogEvent event) {
-        // Add steps only for events that are assertions described via `.because()` call
-        if (event.toString().contains("because")) {
-            lifecycle.getCurrentTestCaseOrStep().ifPresent(parentUuid -> {
-                final String uuid = UUID.randomUUID().toString();
-                lifecycle.startStep(parentUuid, uuid, new StepResult().setName(event.toString()));
-            });
+        if (!isExplainedAssertion(event)) {
+            return;
         }
+        lifecycle.getCurrentTestCaseOrStep().ifPresent(parentUuid -> pendingSteps.get().push(new PendingStep(
+                event,
+                parentUuid,
+                new StepResult().setName(event.toString()).setStart(System.currentTimeMillis()))));
     }
 
     @Override
     public void afterEvent(final LogEvent event) {
-        lifecycle.getCurrentTestCaseOrStep().ifPresent(parentUuid -> {
-            switch (event.getStatus()) {
-                case PASS:
-                    lifecycle.updateStep(step -> step.setStatus(Status.PASSED));
-                    break;
-                case FAIL:
-                    lifecycle.updateStep(stepResult -> {
-                        stepResult.setStatus(getStatus(event.getError()).orElse(Status.BROKEN));
-                        stepResult.setStatusDetails(getStatusDetails(event.getError()).orElse(new StatusDetails()));
-                    });
-                    break;
-                default:
-                    log.warn("Step finished with unsupported status {}", event.getStatus());
-                    break;
-            }
-            lifecycle.stopStep();
-        });
+        val steps = pendingSteps.get();
+        if (steps.isEmpty() || steps.peek().getEvent() != event) {
+            return;
+        }
+        val pendingStep = steps.pop();
+        val step = pendingStep.getStep()
+                .setStage(Stage.FINISHED)
+                .setStop(System.currentTimeMillis());
+        switch (event.getStatus()) {
+            case PASS:
+                step.setStatus(Status.PASSED);
+                break;
+            case FAIL:
+                step.setStatus(getStatus(event.getError()).orElse(Status.BROKEN));
+                step.setStatusDetails(getStatusDetails(event.getError()).orElse(new StatusDetails()));
+                break;
+            default:
+                log.warn("Step finished with unsupported status {}", event.getStatus());
+                break;
+        }
+        BufferedStepWriter.add(lifecycle, pendingStep.getParentUuid(), step);
+    }
+
+    private static boolean isExplainedAssertion(LogEvent event) {
+        val subject = event.getSubject();
+        return subject != null && subject.contains(BECAUSE_MARKER);
+    }
+
+    @Value
+    private static class PendingStep {
+
+        LogEvent event;
+        String parentUuid;
+        StepResult step;
     }
 }
@@ -0,0 +1,171 @@
+package extentions;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import lombok.Value;
+import lombok.val;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.qameta.allure.util.ResultsUtils.getStatus;
+import static io.qameta.allure.util.ResultsUtils.getStatusDetails;
+
+/**
+ * Compares the cost of WrSelenideListener with its previous implementation (LegacyWrSelenideListener), per Selenide
+ * event, for plain events and for assertions described via `.because()` call. Both run against a running test case
+ * of an Allure lifecycle with no-op results writer, so only the listener and lifecycle bookkeeping is measured.
+ * Not a JUnit test, run it from the IDE or with:
+ *
+ *      java -cp <test runtime classpath> extentions.WrSelenideListenerBenchmark [rounds]
+ *
+ * The first rounds are warm-up, only the last one is printed. It's a plain loop, not JMH, so compare the numbers
+ * of the two implementations from the same run rather than taking them as absolute.
+ */
+public class WrSelenideListenerBenchmark {
+
+    private static final int PLAIN_EVENTS = 2_000_000;
+    private static final int EXPLAINED_EVENTS = 200_000;
+    // the buffered steps are written at step boundaries, a test has plenty of them
+    private static final int EVENTS_PER_STEP_BOUNDARY = 1024;
+
+    private static final AllureResultsWriter NO_OP_WRITER = new AllureResultsWriter() {
+
+        @Override
+        public void write(TestResult testResult) {
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+        }
+    };
+
+    public static void main(String[] args) {
+        val rounds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        val lifecycle = new AllureLifecycle(NO_OP_WRITER);
+        val testUuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(testUuid).setName("benchmark"));
+        lifecycle.startTestCase(testUuid);
+
+        val listeners = List.<Map.Entry<String, LogEventListener>>of(
+                Map.entry("legacy", new LegacyWrSelenideListener(lifecycle)),
+                Map.entry("current", new WrSelenideListener(lifecycle)));
+        val events = List.<Map.Entry<String, Map.Entry<LogEvent, Integer>>>of(
+                Map.entry("plain", Map.entry(new PassedEvent("#username", "click()"), PLAIN_EVENTS)),
+                Map.entry("explained", Map.entry(
+                        new PassedEvent("#username", "should have(text 'x') (because reason)"), EXPLAINED_EVENTS)));
+
+        for (int round = 1; round <= rounds; round++) {
+            for (val listener : listeners) {
+                for (val event : events) {
+                    val nanosPerEvent = measure(listener.getValue(), event.getValue().getKey(), event.getValue().getValue());
+                    if (round == rounds) {
+                        System.out.printf("%-8s %-10s %10.1f ns/event%n", listener.getKey(), event.getKey(), nanosPerEvent);
+                    }
+                }
+            }
+        }
+
+        lifecycle.stopTestCase(testUuid);
+        lifecycle.writeTestCase(testUuid);
+    }
+
+    private static double measure(LogEventListener listener, LogEvent event, int count) {
+        val start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            listener.beforeEvent(event);
+            listener.afterEvent(event);
+            if (i % EVENTS_PER_STEP_BOUNDARY == 0) {
+                BufferedStepWriter.flush();
+            }
+        }
+        BufferedStepWriter.flush();
+        return (System.nanoTime() - start) / (double) count;
+    }
+
+    /**
+     * Finished, passed event, like the ones Selenide reports after each successful command. SelenideLog can't be used
+     * here as it stays in progress unless Selenide itself finishes it.
+     */
+    @Value
+    private static class PassedEvent implements LogEvent {
+
+        String element;
+        String subject;
+
+        @Override
+        public EventStatus getStatus() {
+            return EventStatus.PASS;
+        }
+
+        @Override
+        public long getDuration() {
+            return 0;
+        }
+
+        @Override
+        public Throwable getError() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("$(\"%s\") %s", element, subject);
+        }
+    }
+
+    /**
+     * WrSelenideListener as it was before the non-explained events were made cheap, kept here as the baseline
+     */
+    private static class LegacyWrSelenideListener implements LogEventListener {
+
+        private final AllureLifecycle lifecycle;
+
+        LegacyWrSelenideListener(final AllureLifecycle lifecycle) {
+            this.lifecycle = lifecycle;
+        }
+
+        @Override
+        public void beforeEvent(final LogEvent event) {
+            if (event.toString().contains("because")) {
+                lifecycle.getCurrentTestCaseOrStep().ifPresent(parentUuid -> {
+                    final String uuid = UUID.randomUUID().toString();
+                    lifecycle.startStep(parentUuid, uuid, new StepResult().setName(event.toString()));
+                });
+            }
+        }
+
+        @Override
+        public void afterEvent(final LogEvent event) {
+            lifecycle.getCurrentTestCaseOrStep().ifPresent(parentUuid -> {
+                switch (event.getStatus()) {
+                    case PASS:
+                        lifecycle.updateStep(step -> step.setStatus(Status.PASSED));
+                        break;
+                    case FAIL:
+                        lifecycle.updateStep(stepResult -> {
+                            stepResult.setStatus(getStatus(event.getError()).orElse(Status.BROKEN));
+                            stepResult.setStatusDetails(getStatusDetails(event.getError()).orElse(new StatusDetails()));
+                        });
+                        break;
+                    default:
+                        break;
+                }
+                lifecycle.stopStep();
+            });
+        }
+    }
+}
@@ -36,17 +36,29 @@ import static java.util.stream.Collectors.toList;
 @Slf4j
 public class ProjectDetectionExtension implements BeforeAllCallback, BeforeEachCallback {
 
+    private static final ThreadLocal<String> currentProjectName = new ThreadLocal<>();
+
     @Override
     public void beforeAll(final ExtensionContext context) {
         Configuration.baseUrl = getBaseUrlFrom(context);
+        currentProjectName.set(getProjectNameFrom(context));
     }
 
     @Override
     public void beforeEach(final ExtensionContext context) {
         Configuration.baseUrl = getBaseUrlFrom(context);
+        currentProjectName.set(getProjectNameFrom(context));
         Allure.addAttachment("project (baseUrl)", String.format("%s (%s)", getProjectNameFrom(context), Configuration.baseUrl));
     }
 
+    /**
+     * @return name of the project tested by the test running on current thread, for code without access
+     *         to ExtensionContext (e.g. page objects)
+     */
+    public static Optional<String> getCurrentProjectName() {
+        return Optional.ofNullable(currentProjectName.get());
+    }
+
     /**
      * Looks for any test annotation that itself is annotated with `@ProjectTest`
      * If it finds one and only one, it returns the value of its `@Tag` annotation (i.e. the project name).
@@ -1,7 +1,5 @@
 package matchers;
 
-import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.Stopwatch;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.experimental.Accessors;
@@ -17,7 +15,7 @@ import static io.qameta.allure.Allure.step;
 import static java.util.Objects.isNull;
 import static srings.StringManipulationManager.formatAsHumanReadableList;
 import static uri.UriManager.compareUris;
-import static uri.UriManager.getOpenedUri;
+import static uri.UriManager.waitForOpenedUri;
 
 /**
  * This is custom hamcrest matcher that is used to check whether or not the correct page is open. See IsOpened.opened
@@ -55,7 +53,6 @@ public class IsOpened extends TypeSafeMatcher<Openable> {
     @Accessors(chain = true)
     @Setter
     private long timeoutMilliseconds = ENVIRONMENT_CONFIG.getHeavyPagesTimeout();
-    private long pollingIntervalMilliseconds = Configuration.pollingInterval;
 
     /**
      * This is main matcher method, the assertedPage param comes from first argument of assertThat()
@@ -117,9 +114,8 @@ public class IsOpened extends TypeSafeMatcher<Openable> {
         }
 
         /**
-         * Creates matcher for checking the opened page URL value. Matcher will poll the current url value each
-         * Configuration.pollingInterval milliseconds and return false match if it doesn't match within
-         * Configuration.timeoutMilliseconds.
+         * Creates matcher for checking the opened page URL value. Matcher will poll the current url value (see Poller)
+         * and return false match if it doesn't match within timeoutMilliseconds.
          *
          * Example usage:
          *  assertThat(homePage, is(opened()))
@@ -144,16 +140,14 @@ public class IsOpened extends TypeSafeMatcher<Openable> {
 
         private boolean matchUris (List<URI> uris) {
             expectedUris = uris;
-            val stopwatch = new Stopwatch(timeoutMilliseconds);
-            do {
-                openedUri = getOpenedUri(queryNeeded, fragmentNeeded);
-                if (compareUris(openedUri, expectedUris, queryNeeded, fragmentNeeded)) {
-                    return true;
-                }
-                stopwatch.sleep(pollingIntervalMilliseconds);
-            }
-            while (!stopwatch.isTimeoutReached());
-            return false;
+            val result = waitForOpenedUri(
+                    "IsOpened: " + page.getName(), this::isExpectedUri, queryNeeded, fragmentNeeded, timeoutMilliseconds);
+            openedUri = result.getValue();
+            return result.isSuccessful();
+        }
 
-    }
+        @SneakyThrows
+        private boolean isExpectedUri(URI uri) {
+            return compareUris(uri, expectedUris, queryNeeded, fragmentNeeded);
+        }
 }
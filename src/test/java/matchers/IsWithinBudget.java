@@ -0,0 +1,76 @@
+package matchers;
+
+import exception.WrongFrameworkUsageException;
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+import pages.interfaces.Page;
+import performance.PageLoadMetrics;
+import performance.PageLoadMetricsCollector;
+import performance.PerformanceBudget;
+import performance.PerformanceBudget.BudgetItem;
+import performance.PerformanceBudget.BudgetMode;
+
+import java.util.Objects;
+
+import static io.qameta.allure.Allure.step;
+
+/**
+ * Checks page load metrics of currently opened document against the PerformanceBudget of the page. Exceeded
+ * budget fails the assertion, unless the budget is in WARN mode - then it's only reported. Example usage:
+ *
+ *      assertThat(homePage, isNavigatedTo());
+ *      assertThat(homePage, is(withinBudget()));
+ */
+@Slf4j
+public class IsWithinBudget extends TypeSafeMatcher<Page> {
+
+    private Page page;
+    private PerformanceBudget budget;
+    private PageLoadMetrics metrics;
+
+    @Override
+    protected boolean matchesSafely(Page assertedPage) {
+        page = assertedPage;
+        budget = page.getPerformanceBudget();
+        if (Objects.isNull(budget) || budget.isEmpty()) {
+            throw new WrongFrameworkUsageException(
+                    String.format("%s is expected to be within budget, but no PerformanceBudget has been set!", page.getName()));
+        }
+        return step("Validate that " + page.getName() + " is within performance budget", () -> {
+            metrics = PageLoadMetricsCollector.collect(page);
+            val breakdown = budget.getBreakdown(metrics);
+            Allure.addAttachment("Performance budget", breakdown);
+            val isExceeded = budget.getBudgetItems(metrics).stream().anyMatch(BudgetItem::isExceeded);
+            if (isExceeded && budget.getMode() == BudgetMode.WARN) {
+                log.warn("{} exceeded its performance budget:\n{}", page.getName(), breakdown);
+                return true;
+            }
+            return !isExceeded;
+        });
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText((Objects.isNull(page) ? "Page" : page.getName()) + " within performance budget");
+    }
+
+    @Override
+    protected void describeMismatchSafely(Page assertedPage, Description mismatchDescription) {
+        mismatchDescription
+                .appendText("exceeded it on ")
+                .appendText(metrics.getUrl())
+                .appendText(":\n")
+                .appendText(budget.getBreakdown(metrics));
+    }
+
+    public static IsWithinBudget withinBudget() {
+        return new IsWithinBudget();
+    }
+
+    public static IsWithinBudget isWithinBudget() {
+        return withinBudget();
+    }
+}
@@ -25,12 +25,13 @@ import pages.components.Header;
 import pages.interfaces.Bundleable;
 import pages.interfaces.ExpectedElements;
 import pages.interfaces.HeaderInterface;
+import performance.PageLoadMetricsCollector;
+import performance.PerformanceBudget;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import lombok.AccessLevel;
@@ -42,7 +43,6 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URIBuilder;
-import org.openqa.selenium.By;
 import pages.interfaces.Page;
 
 @Slf4j
@@ -86,6 +86,13 @@ public abstract class BasePage implements Page, DataLayerPage, Bundleable {
      */
     @Getter
     private final ExpectedElements expectedElements = ExpectedElements.builder().build();
+    /**
+     * This should be overridden in child classes (or set via builder) to hold the limits for page load metrics,
+     * checked with IsWithinBudget matcher.
+     */
+    @Getter
+    @Default
+    private final PerformanceBudget performanceBudget = PerformanceBudget.builder().build();
     @Getter
     DataLayer mandatoryDataLayer;
     @Getter
@@ -94,13 +101,20 @@ public abstract class BasePage implements Page, DataLayerPage, Bundleable {
 
     @Override
     public void waitUntilLoaded() {
-        getErrorPagesSignatures().entrySet().stream()
-                .filter(signature -> $(By.xpath(signature.getValue())).isDisplayed())
-                .findFirst()
-                .ifPresent(signature -> {
-                    throw new EnvironmentError(signature.getKey() + " is loaded");
-                });
-        Page.super.waitUntilLoaded();
+        findErrorPage().ifPresent(errorPage -> {
+            throw new EnvironmentError(errorPage + " is loaded");
+        });
+        watchForErrorPages(Page.super::waitUntilLoaded);
+    }
+
+    @Override
+    public void waitUntilOpened() {
+        watchForErrorPages(Page.super::waitUntilOpened);
+    }
+
+    @Override
+    public void shouldBeFullyLoaded() {
+        watchForErrorPages(Page.super::shouldBeFullyLoaded);
     }
 
     public URI getUri() {
@@ -142,6 +156,7 @@ public abstract class BasePage implements Page, DataLayerPage, Bundleable {
         step("Load " + this.getName(), () -> {
             this.open();
             waitUntilLoaded();
+            PageLoadMetricsCollector.capture(this);
         });
     }
 
@@ -246,6 +261,23 @@ public abstract class BasePage implements Page, DataLayerPage, Bundleable {
         return dataLayerBuilder;
     }
 
+    /**
+     * Checks all error pages signatures with a single script call. Override getErrorPagesSignatures() to extend
+     * or replace them for given page.
+     *
+     * @return name of the error page shown instead of this page
+     */
+    protected Optional<String> findErrorPage() {
+        return ErrorPageDetector.forSignatures(getErrorPagesSignatures()).findErrorPage();
+    }
+
+    /**
+     * Runs the wait for this page, aborting it with EnvironmentError as soon as any error page is shown
+     */
+    protected void watchForErrorPages(Runnable wait) {
+        ErrorPageWatchdog.watch(getName(), ErrorPageDetector.forSignatures(getErrorPagesSignatures()), wait);
+    }
+
     /**
      * Repeats codeBlock within BasePage instance until no error page is shown
      *
@@ -253,7 +285,7 @@ public abstract class BasePage implements Page, DataLayerPage, Bundleable {
      * @param maxAttemptCount maximum attempt count
      */
     protected void repeatUntilNoErrorPage(Runnable codeBlock, int maxAttemptCount) {
-        Optional<Entry<String, String>> errorPageFound;
+        Optional<String> errorPageFound;
         Error lastException = null;
         var currentTry = 0;
         do {
@@ -263,15 +295,13 @@ public abstract class BasePage implements Page, DataLayerPage, Bundleable {
             } catch (Error e) {
                 lastException = e;
             }
-            errorPageFound = getErrorPagesSignatures().entrySet().stream()
-                    .filter(signature -> $(By.xpath(signature.getValue())).isDisplayed())
-                    .findFirst();
+            errorPageFound = findErrorPage();
             if (errorPageFound.isPresent()) {
-                log.info("{} found during attempt {} out of {}.", errorPageFound.get().getKey(), currentTry, maxAttemptCount);
+                log.info("{} found during attempt {} out of {}.", errorPageFound.get(), currentTry, maxAttemptCount);
             }
         } while (errorPageFound.isPresent() && currentTry < maxAttemptCount);
         if (errorPageFound.isPresent()) {
-            throw new AssertionError(String.format("%s found, no retry attempts left", errorPageFound.get().getKey()), lastException);
+            throw new AssertionError(String.format("%s found, no retry attempts left", errorPageFound.get()), lastException);
         }
         if (Objects.nonNull(lastException)) {
             throw new AssertionError(String.format("%s found, no retry attempts left", lastException.getClass().getSimpleName()), lastException);
@@ -0,0 +1,84 @@
+package pages;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exception.WrongFrameworkUsageException;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
+
+/**
+ * Checks which of the error page signatures (name -> XPath, see BasePage.getErrorPagesSignatures) is displayed,
+ * with a single script call instead of one WebDriver round-trip per signature. The script is compiled once per
+ * signature set, so page subclasses with their own signatures get their own script.
+ */
+@Slf4j
+public class ErrorPageDetector {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Map<Map<String, String>, ErrorPageDetector> detectors = new ConcurrentHashMap<>();
+    /**
+     * Approximates WebDriver's isDisplayed(): the first node matching the XPath must be rendered and not hidden
+     */
+    private static final String SCRIPT_TEMPLATE = String.join("\n",
+            "var signatures = %s;",
+            "for (var i = 0; i < signatures.length; i++) {",
+            "    var node = document.evaluate(signatures[i][1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)",
+            "        .singleNodeValue;",
+            "    if (node && node.nodeType === Node.ELEMENT_NODE",
+            "            && (node.offsetWidth || node.offsetHeight || node.getClientRects().length)",
+            "            && window.getComputedStyle(node).visibility !== 'hidden') {",
+            "        return signatures[i][0];",
+            "    }",
+            "}",
+            "return null;");
+
+    private final Map<String, String> signatures;
+    private final String script;
+
+    private ErrorPageDetector(Map<String, String> signatures) {
+        this.signatures = signatures;
+        this.script = compile(signatures);
+    }
+
+    public static ErrorPageDetector forSignatures(Map<String, String> signatures) {
+        return detectors.computeIfAbsent(Map.copyOf(signatures), ErrorPageDetector::new);
+    }
+
+    /**
+     * @return name of the first error page signature displayed
+     */
+    public Optional<String> findErrorPage() {
+        try {
+            return Optional.ofNullable(executeJavaScript(script));
+        } catch (JavascriptException e) {
+            // e.g. the document doesn't support XPath evaluation, let's check signatures one by one
+            log.debug("Error page detection script failed, falling back to WebDriver: {}", e.toString());
+            return signatures.entrySet().stream()
+                    .filter(signature -> $(By.xpath(signature.getValue())).isDisplayed())
+                    .map(Map.Entry::getKey)
+                    .findFirst();
+        }
+    }
+
+    private static String compile(Map<String, String> signatures) {
+        val signaturePairs = signatures.entrySet().stream()
+                .map(signature -> List.of(signature.getKey(), signature.getValue()))
+                .collect(Collectors.toList());
+        try {
+            return String.format(SCRIPT_TEMPLATE, OBJECT_MAPPER.writeValueAsString(signaturePairs));
+        } catch (JsonProcessingException e) {
+            throw new WrongFrameworkUsageException("Cannot compile error pages signatures: " + signatures, e);
+        }
+    }
+}
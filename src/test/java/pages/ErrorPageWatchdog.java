@@ -0,0 +1,78 @@
+package pages;
+
+import com.codeborne.selenide.WebDriverRunner;
+import commands.AbortableCheck;
+import exception.EnvironmentError;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import waiters.WaitAbortSignal;
+
+import java.util.Optional;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Aborts a page wait as soon as an error page (503, Maintenance...) is shown, rather than when the wait times out.
+ * Usage (see BasePage):
+ *
+ *      ErrorPageWatchdog.watch(getName(), ErrorPageDetector.forSignatures(getErrorPagesSignatures()), super::waitUntilLoaded);
+ *
+ * While the wait runs, the waiting thread itself checks for the error pages, every 'waiter.errorPageWatchdog.interval'
+ * ms at most: between the attempts of Poller runs (IsOpened, Openable, ExpectedElements) and before each attempt of
+ * Selenide's should* checks (e.g. the ones of the loaded callback, see AbortableCheck). So the session has no second
+ * caller, and a check stuck in the browser holds up its own wait only. Once an error page is found, Poller stops,
+ * the should* check fails, and the wait fails with EnvironmentError.
+ *
+ * Nested watches are covered by the outermost one.
+ */
+@Slf4j
+public class ErrorPageWatchdog {
+
+    static {
+        AbortableCheck.register();
+    }
+
+    /**
+     * Runs the wait, failing it with EnvironmentError when any error page is shown in the meantime
+     *
+     * @param pageName name of the page being waited for, for the error message
+     */
+    @SneakyThrows
+    public static void watch(String pageName, ErrorPageDetector detector, Runnable wait) {
+        if (!ENVIRONMENT_CONFIG.isErrorPageWatchdogEnabled() || WaitAbortSignal.isRegisteredForCurrentThread()
+                || !WebDriverRunner.hasWebDriverStarted()) {
+            wait.run();
+            return;
+        }
+        val signal = WaitAbortSignal.register(() -> findErrorPage(detector), ENVIRONMENT_CONFIG.getErrorPageWatchdogInterval());
+        try {
+            wait.run();
+        } catch (Throwable e) {
+            val errorPage = signal.getReason();
+            if (errorPage.isPresent()) {
+                throw new EnvironmentError(String.format("%s is loaded instead of %s", errorPage.get(), pageName), e);
+            }
+            throw e;
+        } finally {
+            signal.unregister();
+        }
+        // an aborted Poller run doesn't necessarily fail the wait on its own
+        val errorPage = signal.getReason();
+        if (errorPage.isPresent()) {
+            throw new EnvironmentError(String.format("%s is loaded instead of %s", errorPage.get(), pageName));
+        }
+    }
+
+    private static Optional<String> findErrorPage(ErrorPageDetector detector) {
+        try {
+            val errorPage = detector.findErrorPage();
+            errorPage.ifPresent(page -> log.info("{} is loaded, aborting the wait", page));
+            return errorPage;
+        } catch (RuntimeException e) {
+            // e.g. the page is being navigated, the wait handles that on its own
+            log.debug("Error page check failed: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+}
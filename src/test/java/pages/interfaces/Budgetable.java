@@ -0,0 +1,11 @@
+package pages.interfaces;
+
+import performance.PerformanceBudget;
+
+public interface Budgetable extends Nameable {
+
+    /**
+     * @return limits for page load metrics of this page, see IsWithinBudget
+     */
+    PerformanceBudget getPerformanceBudget();
+}
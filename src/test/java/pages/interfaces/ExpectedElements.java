@@ -1,12 +1,12 @@
 package pages.interfaces;
 
 import com.codeborne.selenide.Command;
+import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.Condition;
 import com.codeborne.selenide.SelenideElement;
 import com.codeborne.selenide.commands.*;
 import commands.CommandsHelper;
 import configuration.EnvironmentConfig;
-import io.opentelemetry.sdk.metrics.ViewBuilder;
 import io.qameta.allure.Step;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -14,8 +14,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import waiters.Poller;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -54,13 +56,32 @@ public class ExpectedElements {
 
     /**
      * Runs all assertions in a soft way, if any of the registered Expectation's failed,
-     * the CombinedAssertionError will be thrown.
+     * the AssertionError listing all of them will be thrown (each failure attached as suppressed exception).
+     *
+     * All expectations share one deadline (Configuration.timeout): each polling attempt checks every expectation
+     * that hasn't passed yet, once, so missing elements cost one timeout in total instead of one per element.
      */
     @Step("Check if all elements have been fully loaded")
     public void shouldBeFullyLoaded() {
-        val failedExpectations = expectationList.stream()
-                .map(Expectation::execute)
-                .filter(ExpectationResult::isFailed)
+        val pendingExpectations = new ArrayList<>(expectationList);
+        val lastResults = new HashMap<Expectation, ExpectationResult>();
+        val result = Poller.poll("ExpectedElements.shouldBeFullyLoaded", () -> {
+                    pendingExpectations.removeIf(expectation -> {
+                        val expectationResult = expectation.execute();
+                        lastResults.put(expectation, expectationResult);
+                        return !expectationResult.isFailed();
+                    });
+                    return pendingExpectations.size();
+                })
+                .until(pendingCount -> pendingCount == 0)
+                .withTimeout(Configuration.timeout)
+                .run();
+        if (result.isSuccessful()) {
+            return;
+        }
+
+        val failedExpectations = pendingExpectations.stream()
+                .map(lastResults::get)
                 .collect(Collectors.toList());
 
         val message = "The page has not been fully loaded:\n"
@@ -70,15 +91,11 @@ public class ExpectedElements {
                 .map(m -> "  - " + m.split("\n", 2)[0])
                 .collect(Collectors.joining("\n"));
 
- /*       val assertionError = new CombinedAssertionError(message);
-
-        failedExpectations
-                .stream().map(ExpectationResult::getFailureException)
-                .forEach(assertionError::addSuppressedException);
-
-        if (assertionError.isFailed()) {
-            throw assertionError;
-        }   */
+        val assertionError = new AssertionError(message);
+        failedExpectations.stream()
+                .map(ExpectationResult::getFailureException)
+                .forEach(assertionError::addSuppressed);
+        throw assertionError;
     }
 
     public static ViewBuilder builder() {
@@ -217,7 +234,8 @@ public class ExpectedElements {
         final Condition[] conditions;
 
         /**
-         * This method performs the Selenide's command-execution.
+         * This method performs the Selenide's command-execution. The command is executed directly, not via
+         * SelenideElement proxy, so the conditions are checked once, without waiting.
          */
         ExpectationResult execute() {
             val locator = CommandsHelper.getWebElementSource(selenideElement);
@@ -2,6 +2,9 @@ package pages.interfaces;
 
 import exception.WrongFrameworkUsageException;
 import lombok.SneakyThrows;
+import telemetry.Tracing;
+import waiters.WaitTimeAccounting;
+
 import java.util.Optional;
 
 import static io.qameta.allure.Allure.step;
@@ -10,7 +13,9 @@ public interface Loadable extends Nameable {
 
     @SneakyThrows
     default void waitUntilLoaded() {
-        step(getName() + " should be loaded", this::runLoadedCallback);
+        step(getName() + " should be loaded",
+                () -> Tracing.inSpan("Load " + getName(), Tracing.pageAttributes(getName()),
+                        () -> WaitTimeAccounting.inScope(getName() + " loaded callback", this::runLoadedCallback)));
     }
 
     default boolean checkIfLoaded() {
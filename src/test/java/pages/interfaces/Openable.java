@@ -2,12 +2,11 @@ package pages.interfaces;
 
 import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.Selenide;
-import com.codeborne.selenide.Stopwatch;
 import com.google.common.collect.Lists;
 import lombok.SneakyThrows;
-import lombok.val;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriverException;
+import telemetry.Tracing;
 
 import java.net.URI;
 import java.util.Collections;
@@ -18,7 +17,7 @@ import static io.qameta.allure.Allure.step;
 import static matchers.IsOpened.isOpened;
 import static matchers.WrMatcherAssert.assertThat;
 import static uri.UriManager.compareUris;
-import static uri.UriManager.getOpenedUri;
+import static uri.UriManager.waitForOpenedUri;
 
 public interface Openable extends Nameable {
 
@@ -45,7 +44,7 @@ public interface Openable extends Nameable {
     default void open() {
         step(
                 String.format("Open %s: %s", this.getName(), getUri().toURL()),
-                () -> {
+                () -> Tracing.inSpan("Open " + getName(), Tracing.pageAttributes(getName()), () -> {
                     try {
                         Selenide.open(getUri().toURL());
                     } catch (TimeoutException timeoutException) {
@@ -53,7 +52,7 @@ public interface Openable extends Nameable {
                     } catch (WebDriverException webDriverException) {
                         throw new AssertionError(String.format("Could not open %s:", this.getName()), webDriverException);
                     }
-                }
+                })
         );
     }
 
@@ -65,15 +64,13 @@ public interface Openable extends Nameable {
      */
     @SneakyThrows
     default boolean checkIfOpened(boolean withQuery, boolean withFragment) {
-        val stopwatch = new Stopwatch(Configuration.timeout);
-        do {
-            val openedUri = getOpenedUri(withQuery, withFragment);
-            if (isUriMatching(openedUri, withQuery, withFragment)) {
-                return true;
-            }
-            stopwatch.sleep(Configuration.pollingInterval);
-        } while (!stopwatch.isTimeoutReached());
-        return false;
+        return waitForOpenedUri(
+                "Openable.checkIfOpened: " + getName(),
+                openedUri -> isUriMatching(openedUri, withQuery, withFragment),
+                withQuery,
+                withFragment,
+                Configuration.timeout)
+                .isSuccessful();
     }
 
     @SneakyThrows
@@ -89,13 +86,13 @@ public interface Openable extends Nameable {
 
     @SneakyThrows
     default boolean redirectedWithin(long timeoutMilliseconds) {
-        val stopwatch = new Stopwatch(timeoutMilliseconds);
-        do {
-            val openedUrl = getOpenedUri(false, false);
-            if (!openedUrl.toURL().sameFile(getUri().toURL())) { return true; }
-            stopwatch.sleep(Configuration.pollingInterval);
-        } while (!stopwatch.isTimeoutReached());
-        return false;
+        return waitForOpenedUri(
+                "Openable.redirectedWithin: " + getName(),
+                openedUri -> !isSameUrl(openedUri),
+                false,
+                false,
+                timeoutMilliseconds)
+                .isSuccessful();
     }
 
     default void waitUntilRedirectWithin(long timeoutMilliseconds) {
@@ -108,6 +105,11 @@ public interface Openable extends Nameable {
         });
     }
 
+    @SneakyThrows
+    private boolean isSameUrl(URI openedUri) {
+        return openedUri.toURL().sameFile(getUri().toURL());
+    }
+
     @SneakyThrows
     private boolean isUriMatching(URI expectedUri, boolean withQuery, boolean withFragment) {
         return compareUris(expectedUri, getAllUris(), withQuery, withFragment);
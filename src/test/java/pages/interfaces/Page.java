@@ -1,19 +1,29 @@
 package pages.interfaces;
 
 import lombok.SneakyThrows;
+import performance.PageLoadMetricsCollector;
 
 import java.net.URI;
+import java.util.Optional;
 
-public interface Page extends Openable, Loadable, Viewable, FullyLoadable {
+public interface Page extends Openable, Loadable, Viewable, FullyLoadable, Budgetable {
 
     @SneakyThrows
     default void waitUntilNavigatedTo() {
         this.waitUntilOpened();
         this.waitUntilLoaded();
+        PageLoadMetricsCollector.capture(this);
     }
 
     @Override
     default URI getUri() {
         return null;
     }
+
+    /**
+     * @return path part of the page's URI, used e.g. to key page load metrics
+     */
+    default String getUriPath() {
+        return Optional.ofNullable(getUri()).map(URI::getPath).orElse(null);
+    }
 }
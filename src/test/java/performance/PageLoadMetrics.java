@@ -0,0 +1,51 @@
+package performance;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Front-end performance of a single page load, as reported by the browser. Timings are in milliseconds since
+ * the navigation start, null when the browser doesn't support given metric (e.g. LCP and CLS outside of Chromium).
+ */
+@Value
+@Builder
+public class PageLoadMetrics {
+
+    String runId;
+    long timestamp;
+    String page;
+    String uriPath;
+    String project;
+    String viewType;
+    String url;
+    Double timeToFirstByte;
+    Double domContentLoaded;
+    Double load;
+    Double firstPaint;
+    Double firstContentfulPaint;
+    Double largestContentfulPaint;
+    Double cumulativeLayoutShift;
+    Long transferBytes;
+    Long requestCount;
+
+    public String toReport() {
+        return String.join("\n",
+                String.format("%s (%s), %s view", page, url, viewType),
+                formatTiming("Time to first byte", timeToFirstByte),
+                formatTiming("DOMContentLoaded", domContentLoaded),
+                formatTiming("Load", load),
+                formatTiming("First paint", firstPaint),
+                formatTiming("First contentful paint", firstContentfulPaint),
+                formatTiming("Largest contentful paint", largestContentfulPaint),
+                String.format("%-26s %s", "Cumulative layout shift",
+                        Objects.isNull(cumulativeLayoutShift) ? "n/a" : String.format("%.3f", cumulativeLayoutShift)),
+                String.format("%-26s %s", "Transferred", Objects.isNull(transferBytes) ? "n/a" : transferBytes / 1024 + " KB"),
+                String.format("%-26s %s", "Requests", Objects.isNull(requestCount) ? "n/a" : requestCount));
+    }
+
+    private static String formatTiming(String name, Double value) {
+        return String.format("%-26s %s", name, Objects.isNull(value) ? "n/a" : Math.round(value) + " ms");
+    }
+}
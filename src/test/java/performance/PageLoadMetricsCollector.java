@@ -0,0 +1,163 @@
+package performance;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import configuration.EnvironmentConfig;
+import helpers.ProjectDetectionExtension;
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+import pages.interfaces.Page;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Collects page load performance from the browser (Navigation Timing, Paint Timing, LCP and CLS) once the page
+ * is loaded. The metrics are attached to the current Allure step and appended as JSON line to the per-run
+ * time-series file in the framework reports directory, keyed by page name, URI path, project and view type.
+ *
+ * Each document is captured once, so calling both BasePage.load() and Page.waitUntilNavigatedTo() doesn't produce
+ * duplicates. NOTE: for client-side (SPA) navigation the browser reports the metrics of the initial document load.
+ */
+@Slf4j
+public class PageLoadMetricsCollector {
+
+    public static final String TIME_SERIES_FILE_NAME = "page-load-metrics.jsonl";
+    private static final String RUN_ID = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()).toString();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ThreadLocal<String> lastCapturedDocument = new ThreadLocal<>();
+    private static final String COLLECT_METRICS_SCRIPT = String.join("\n",
+            "var done = arguments[arguments.length - 1];",
+            "var navigation = performance.getEntriesByType('navigation')[0];",
+            "var paints = {};",
+            "performance.getEntriesByType('paint').forEach(function (entry) { paints[entry.name] = entry.startTime; });",
+            "var resources = performance.getEntriesByType('resource');",
+            "var metrics = {",
+            "    document: performance.timeOrigin + ' ' + window.location.href,",
+            "    url: window.location.href,",
+            "    timeToFirstByte: navigation ? navigation.responseStart : null,",
+            "    domContentLoaded: navigation ? navigation.domContentLoadedEventEnd : null,",
+            "    load: navigation ? navigation.loadEventEnd : null,",
+            "    firstPaint: paints['first-paint'] || null,",
+            "    firstContentfulPaint: paints['first-contentful-paint'] || null,",
+            "    largestContentfulPaint: null,",
+            "    cumulativeLayoutShift: null,",
+            "    requestCount: resources.length + (navigation ? 1 : 0),",
+            "    transferBytes: resources.reduce(function (sum, entry) { return sum + (entry.transferSize || 0); },",
+            "        navigation ? navigation.transferSize || 0 : 0)",
+            "};",
+            "var supported = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes) || [];",
+            "var observers = [];",
+            "var observe = function (type, onEntries) {",
+            "    if (supported.indexOf(type) < 0) { return; }",
+            "    var observer = new PerformanceObserver(function (list) { onEntries(list.getEntries()); });",
+            "    observer.observe({type: type, buffered: true});",
+            "    observers.push(observer);",
+            "};",
+            "observe('largest-contentful-paint', function (entries) {",
+            "    metrics.largestContentfulPaint = entries[entries.length - 1].startTime;",
+            "});",
+            "if (supported.indexOf('layout-shift') >= 0) { metrics.cumulativeLayoutShift = 0; }",
+            // sum of all shifts not caused by user input, which is what CLS is for a page that was just loaded
+            "observe('layout-shift', function (entries) {",
+            "    entries.forEach(function (entry) {",
+            "        if (!entry.hadRecentInput) { metrics.cumulativeLayoutShift += entry.value; }",
+            "    });",
+            "});",
+            // buffered entries are delivered to the observers asynchronously
+            "setTimeout(function () {",
+            "    observers.forEach(function (observer) { observer.disconnect(); });",
+            "    done(metrics);",
+            "}, 50);");
+
+    /**
+     * Never fails the test, the metrics are a side product of the page load
+     */
+    public static Optional<PageLoadMetrics> capture(Page page) {
+        if (!ENVIRONMENT_CONFIG.isPerformanceCaptureEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            val result = runCollectMetricsScript();
+            val document = (String) result.get("document");
+            if (document.equals(lastCapturedDocument.get())) {
+                return Optional.empty();
+            }
+            lastCapturedDocument.set(document);
+            val metrics = toMetrics(page, result);
+            Allure.addAttachment("Page load performance", metrics.toReport());
+            appendToTimeSeries(metrics);
+            return Optional.of(metrics);
+        } catch (WebDriverException | ClassCastException e) {
+            log.warn("Could not collect page load metrics of {}: {}", page.getName(), e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Collects the metrics of currently opened document, without recording them anywhere
+     */
+    public static PageLoadMetrics collect(Page page) {
+        return toMetrics(page, runCollectMetricsScript());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> runCollectMetricsScript() {
+        return (Map<String, Object>) ((JavascriptExecutor) getWebDriver()).executeAsyncScript(COLLECT_METRICS_SCRIPT);
+    }
+
+    private static PageLoadMetrics toMetrics(Page page, Map<String, Object> result) {
+        return PageLoadMetrics.builder()
+                .runId(RUN_ID)
+                .timestamp(System.currentTimeMillis())
+                .page(page.getName())
+                .uriPath(page.getUriPath())
+                .project(ProjectDetectionExtension.getCurrentProjectName().orElse(null))
+                .viewType(EnvironmentConfig.getViewType().toString())
+                .url((String) result.get("url"))
+                .timeToFirstByte(toDouble(result.get("timeToFirstByte")))
+                .domContentLoaded(toDouble(result.get("domContentLoaded")))
+                .load(toDouble(result.get("load")))
+                .firstPaint(toDouble(result.get("firstPaint")))
+                .firstContentfulPaint(toDouble(result.get("firstContentfulPaint")))
+                .largestContentfulPaint(toDouble(result.get("largestContentfulPaint")))
+                .cumulativeLayoutShift(toDouble(result.get("cumulativeLayoutShift")))
+                .transferBytes(toLong(result.get("transferBytes")))
+                .requestCount(toLong(result.get("requestCount")))
+                .build();
+    }
+
+    private static synchronized void appendToTimeSeries(PageLoadMetrics metrics) {
+        val timeSeriesFile = Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir(), TIME_SERIES_FILE_NAME);
+        try {
+            Files.createDirectories(timeSeriesFile.getParent());
+            Files.writeString(timeSeriesFile, OBJECT_MAPPER.writeValueAsString(metrics) + "\n",
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize page load metrics {}: {}", metrics, e.toString());
+        } catch (IOException e) {
+            log.warn("Could not append page load metrics to {}: {}", timeSeriesFile, e.toString());
+        }
+    }
+
+    private static Double toDouble(Object value) {
+        return Objects.isNull(value) ? null : ((Number) value).doubleValue();
+    }
+
+    private static Long toLong(Object value) {
+        return Objects.isNull(value) ? null : ((Number) value).longValue();
+    }
+}
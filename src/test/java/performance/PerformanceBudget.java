@@ -0,0 +1,101 @@
+package performance;
+
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.Value;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Limits for page load metrics of given page, checked via IsWithinBudget.withinBudget() matcher. Usage example:
+ *
+ *      PerformanceBudget.builder()
+ *              .maxTimeToFirstByteMs(800L)
+ *              .maxLargestContentfulPaintMs(2500L)
+ *              .maxRequestCount(120L)
+ *              .build();
+ *
+ * Only the limits that are set are checked. Metrics not supported by the browser (e.g. LCP outside of Chromium)
+ * are reported, but never exceed the budget.
+ */
+@Value
+@Builder(toBuilder = true)
+public class PerformanceBudget {
+
+    Long maxTimeToFirstByteMs;
+    Long maxDomContentLoadedMs;
+    Long maxLargestContentfulPaintMs;
+    Long maxTransferBytes;
+    Long maxRequestCount;
+    @Default
+    BudgetMode mode = ENVIRONMENT_CONFIG.getPerformanceBudgetMode();
+
+    public boolean isEmpty() {
+        return getBudgetItems(PageLoadMetrics.builder().build()).isEmpty();
+    }
+
+    /**
+     * @return all the limits that are set, along with the actual values
+     */
+    public List<BudgetItem> getBudgetItems(PageLoadMetrics metrics) {
+        val items = new ArrayList<BudgetItem>();
+        addItem(items, "Time to first byte", metrics.getTimeToFirstByte(), maxTimeToFirstByteMs, "ms");
+        addItem(items, "DOMContentLoaded", metrics.getDomContentLoaded(), maxDomContentLoadedMs, "ms");
+        addItem(items, "Largest contentful paint", metrics.getLargestContentfulPaint(), maxLargestContentfulPaintMs, "ms");
+        addItem(items, "Transferred", toDouble(metrics.getTransferBytes()), maxTransferBytes, "B");
+        addItem(items, "Requests", toDouble(metrics.getRequestCount()), maxRequestCount, "");
+        return items;
+    }
+
+    public String getBreakdown(PageLoadMetrics metrics) {
+        return String.format("%-26s %12s %12s%n", "Metric", "Actual", "Budget")
+                + getBudgetItems(metrics).stream().map(BudgetItem::toString).collect(Collectors.joining("\n"));
+    }
+
+    private static void addItem(List<BudgetItem> items, String metric, Double actual, Long limit, String unit) {
+        if (Objects.nonNull(limit)) {
+            items.add(new BudgetItem(metric, actual, limit, unit));
+        }
+    }
+
+    private static Double toDouble(Long value) {
+        return Objects.isNull(value) ? null : value.doubleValue();
+    }
+
+    public enum BudgetMode {
+        /**
+         * Exceeded budget fails the assertion
+         */
+        FAIL,
+        /**
+         * Exceeded budget is only reported in the logs and Allure
+         */
+        WARN
+    }
+
+    @Value
+    public static class BudgetItem {
+
+        String metric;
+        Double actual;
+        long limit;
+        String unit;
+
+        public boolean isExceeded() {
+            return Objects.nonNull(actual) && actual > limit;
+        }
+
+        @Override
+        public String toString() {
+            val actualValue = Objects.isNull(actual) ? "n/a" : (Math.round(actual) + " " + unit).trim();
+            return String.format("%-26s %12s %12s  %s",
+                    metric, actualValue, (limit + " " + unit).trim(), isExceeded() ? "EXCEEDED" : "OK");
+        }
+    }
+}
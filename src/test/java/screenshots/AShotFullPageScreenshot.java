@@ -0,0 +1,39 @@
+package screenshots;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+import ru.yandex.qatools.ashot.AShot;
+import ru.yandex.qatools.ashot.shooting.ShootingStrategies;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Scrolls the page view-port by view-port and pastes the screenshots together. Takes SCREENSHOT_SCROLL_TIMEOUT per
+ * view-port, so it's used only for browsers without CDP.
+ */
+class AShotFullPageScreenshot implements FullPageScreenshot {
+
+    private static final int SCREENSHOT_SCROLL_TIMEOUT = 1000;
+    private static final AShot SCREENSHOT_FACTORY = new AShot()
+            .shootingStrategy(ShootingStrategies.viewportPasting(SCREENSHOT_SCROLL_TIMEOUT));
+
+    @Override
+    public Screenshot capture(WebDriver webDriver) {
+        val image = SCREENSHOT_FACTORY.takeScreenshot(webDriver).getImage();
+        // hashing the pixels would cost about as much as encoding them, so AShot screenshots are not deduplicated
+        return new Screenshot(null, () -> encodePng(image));
+    }
+
+    @SneakyThrows(IOException.class)
+    private static InputStream encodePng(BufferedImage image) {
+        val baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return new ByteArrayInputStream(baos.toByteArray());
+    }
+}
@@ -0,0 +1,49 @@
+package screenshots;
+
+import com.google.common.hash.Hashing;
+import devtools.CdpManager;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Captures the whole page in one CDP call, without scrolling. The browser encodes the PNG on its own and the base64
+ * payload is decoded as a stream, so the image never ends up in the heap as a BufferedImage.
+ */
+class CdpFullPageScreenshot implements FullPageScreenshot {
+
+    // Chromium can't render a single capture beyond the maximum texture size, the rest of the page is cut off
+    private static final long MAX_CAPTURE_SIZE = 16384;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Screenshot capture(WebDriver webDriver) {
+        val layoutMetrics = CdpManager.executeCdpCommand(webDriver, "Page.getLayoutMetrics", Map.of());
+        // cssContentSize is in CSS pixels, which is what the clip expects; contentSize is the pre-Chrome 92 name
+        val contentSize = (Map<String, Object>) Objects.requireNonNullElse(
+                layoutMetrics.get("cssContentSize"), layoutMetrics.get("contentSize"));
+        val clip = Map.<String, Object>of(
+                "x", 0,
+                "y", 0,
+                "width", Math.min(toLong(contentSize.get("width")), MAX_CAPTURE_SIZE),
+                "height", Math.min(toLong(contentSize.get("height")), MAX_CAPTURE_SIZE),
+                "scale", 1);
+        val screenshot = CdpManager.executeCdpCommand(webDriver, "Page.captureScreenshot", Map.of(
+                "format", "png",
+                "captureBeyondViewport", true,
+                "clip", clip));
+        val data = (String) screenshot.get("data");
+        return new Screenshot(
+                Hashing.sha256().hashString(data, StandardCharsets.US_ASCII).toString(),
+                () -> Base64.getDecoder().wrap(new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    private static long toLong(Object value) {
+        return (long) Math.ceil(((Number) value).doubleValue());
+    }
+}
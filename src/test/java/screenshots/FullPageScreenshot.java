@@ -0,0 +1,24 @@
+package screenshots;
+
+import devtools.CdpManager;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Screenshot of the whole page, not only of the view-port. Implementations decide how it's taken:
+ * CdpFullPageScreenshot in a single Page.captureScreenshot call, AShotFullPageScreenshot by scrolling and pasting
+ * the view-ports together (non-Chromium browsers only, as it's slow and memory hungry).
+ */
+public interface FullPageScreenshot {
+
+    /**
+     * Takes the screenshot of currently opened page. Only the browser-bound part is done right away, PNG encoding
+     * is deferred to Screenshot.getPng(), so it can be done off the test thread (see DiagnosticsPipeline).
+     *
+     * @return screenshot, with PNG encoding deferred
+     */
+    Screenshot capture(WebDriver webDriver);
+
+    static FullPageScreenshot forSession(WebDriver webDriver) {
+        return CdpManager.isCdpSupported(webDriver) ? new CdpFullPageScreenshot() : new AShotFullPageScreenshot();
+    }
+}
@@ -0,0 +1,20 @@
+package screenshots;
+
+import lombok.Value;
+
+import java.io.InputStream;
+import java.util.function.Supplier;
+
+/**
+ * Screenshot taken by FullPageScreenshot, PNG encoding is deferred to the png supplier
+ */
+@Value
+public class Screenshot {
+
+    /**
+     * Hash of the captured data, identical screenshots have the same one. Null when it can't be computed without
+     * encoding the image first.
+     */
+    String contentHash;
+    Supplier<InputStream> png;
+}
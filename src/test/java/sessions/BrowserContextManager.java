@@ -0,0 +1,136 @@
+package sessions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import devtools.CdpManager;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import static framework.collectors.WrCollectors.onlyOne;
+
+/**
+ * Opens an incognito-like browser context (CDP Target.createBrowserContext) for each test inside the long-lived
+ * browser of the worker. Each context has its own cookies, storage and cache, so nothing leaks between tests,
+ * and creating one takes milliseconds instead of a whole browser startup.
+ *
+ * Works for Chromium-based sessions only, other browsers keep using the shared browser state.
+ * Enabled with 'webdriver.browser.enable.isolatedContexts' (i.e. -PisolatedContexts=true).
+ */
+@Slf4j
+public class BrowserContextManager {
+
+    private static final ThreadLocal<IsolatedContext> currentContext = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> isContextRequested = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Opens the context for the test running on current thread: right away if its session has started already,
+     * otherwise at its first navigation (see LazyOpener), so tests that don't use the browser don't start one.
+     */
+    public static void request() {
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            open();
+            return;
+        }
+        isContextRequested.set(true);
+    }
+
+    /**
+     * Creates new browser context with a blank window and switches WebDriver to it
+     *
+     * @return opened context, or empty if the browser doesn't support CDP
+     */
+    public static Optional<IsolatedContext> open() {
+        if (Objects.nonNull(currentContext.get())) {
+            return Optional.of(currentContext.get());
+        }
+        val webDriver = getWebDriver();
+        if (!CdpManager.isCdpSupported(webDriver)) {
+            log.info("Browser does not support CDP, running test in shared browser context");
+            return Optional.empty();
+        }
+        val parentWindowHandle = webDriver.getWindowHandle();
+        val browserContextId = (String) CdpManager.executeCdpCommand("Target.createBrowserContext", Map.of())
+                .get("browserContextId");
+        val targetId = (String) CdpManager.executeCdpCommand(
+                "Target.createTarget",
+                Map.of("url", "about:blank", "browserContextId", browserContextId))
+                .get("targetId");
+        // chromedriver uses target id as window handle (older versions prefix it with "CDwindow-")
+        val windowHandle = webDriver.getWindowHandles().stream()
+                .filter(handle -> handle.endsWith(targetId))
+                .collect(onlyOne("window of target " + targetId));
+        webDriver.switchTo().window(windowHandle);
+
+        val context = new IsolatedContext(browserContextId, windowHandle, parentWindowHandle);
+        currentContext.set(context);
+        log.info("Opened {}", context);
+        return Optional.of(context);
+    }
+
+    /**
+     * Switches WebDriver back to the window it used before open() and disposes the context, together with all
+     * windows, cookies and storage that the test created in it.
+     */
+    public static void close() {
+        isContextRequested.remove();
+        val context = currentContext.get();
+        currentContext.remove();
+        if (Objects.isNull(context)) {
+            return;
+        }
+        try {
+            getWebDriver().switchTo().window(context.getParentWindowHandle());
+            CdpManager.executeCdpCommand(
+                    "Target.disposeBrowserContext",
+                    Map.of("browserContextId", context.getBrowserContextId()));
+            log.info("Disposed {}", context);
+        } catch (WebDriverException e) {
+            log.warn("Could not dispose {}: {}", context, e.toString());
+            SessionPool.getCurrentSession().ifPresent(session -> session.setMarkedForRecycling(true));
+        }
+    }
+
+    public static Optional<IsolatedContext> getCurrentContext() {
+        return Optional.ofNullable(currentContext.get());
+    }
+
+    /**
+     * Opens the requested context before the first navigation of the session, so the page is loaded in it.
+     * Selenide navigates with navigate().to(), plain WebDriver with get().
+     */
+    public static class LazyOpener implements WebDriverListener {
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            openIfRequested();
+        }
+
+        @Override
+        public void beforeTo(WebDriver.Navigation navigation, String url) {
+            openIfRequested();
+        }
+
+        private static void openIfRequested() {
+            if (isContextRequested.get()) {
+                isContextRequested.remove();
+                open();
+            }
+        }
+    }
+
+    @Value
+    public static class IsolatedContext {
+
+        String browserContextId;
+        String windowHandle;
+        String parentWindowHandle;
+    }
+}
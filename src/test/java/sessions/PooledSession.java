@@ -0,0 +1,34 @@
+package sessions;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Browser session owned by the SessionPool, together with the bookkeeping needed to decide when to recycle it.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class PooledSession {
+
+    private final SessionKey key;
+    private final WebDriver webDriver;
+    private final long allocationMillis;
+    private int useCount;
+    /**
+     * Once set, the session is quit on release instead of being returned to the pool
+     */
+    @Setter
+    private boolean markedForRecycling;
+
+    void markUsed() {
+        useCount++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s session #%d (used %d times)", key, System.identityHashCode(webDriver), useCount);
+    }
+}
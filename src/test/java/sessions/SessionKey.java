@@ -0,0 +1,34 @@
+package sessions;
+
+import configuration.EnvironmentConfig;
+import configuration.WebDriverType;
+import lombok.Value;
+import pages.interfaces.ViewType;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Identifies browser sessions that are interchangeable between tests. Two sessions with equal SessionKey can be
+ * handed out to any test that asks for the current configuration.
+ */
+@Value
+public class SessionKey {
+
+    WebDriverType webDriverType;
+    String browserName;
+    String browserVersion;
+    ViewType viewType;
+
+    public static SessionKey current() {
+        return new SessionKey(
+                ENVIRONMENT_CONFIG.getWebDriverType(),
+                ENVIRONMENT_CONFIG.getBrowserName(),
+                ENVIRONMENT_CONFIG.getBrowserVersion(),
+                EnvironmentConfig.getViewType());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s:%s (%s)", webDriverType, browserName, browserVersion, viewType);
+    }
+}
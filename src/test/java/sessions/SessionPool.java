@@ -0,0 +1,183 @@
+package sessions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Keeps browser sessions warm between tests, so each test does not pay for a fresh browser allocation. Sits between
+ * the tests and Selenide's WebDriverRunner:
+ *
+ *      SessionPool.acquire();   // binds pooled (or freshly allocated) session to current thread
+ *      ...                      // test body, using Selenide as usual
+ *      SessionPool.release();   // resets the session and returns it to the pool
+ *
+ * Sessions are grouped by SessionKey, a session is handed out only when it passes the health probe, otherwise
+ * it's quit and replaced with a new one. Use SessionPoolExtension rather than calling these methods directly.
+ *
+ * NOTE: the session state is reset after each test, so tests must not rely on browser state prepared by other
+ *       tests (e.g. login done in @BeforeAll fixture) when the pool is enabled.
+ */
+@Slf4j
+public class SessionPool {
+
+    private static final Map<SessionKey, Deque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private static final ThreadLocal<PooledSession> currentSession = new ThreadLocal<>();
+    @Getter
+    private static final SessionPoolMetrics metrics = new SessionPoolMetrics();
+
+    /**
+     * Binds a healthy session to the current thread. Reuses idle session of the same SessionKey if there's one,
+     * otherwise lets Selenide allocate a new one using the current Configuration.
+     *
+     * @return session bound to the current thread
+     */
+    public static PooledSession acquire() {
+        val alreadyAcquired = currentSession.get();
+        if (Objects.nonNull(alreadyAcquired)) {
+            return alreadyAcquired;
+        }
+        val key = SessionKey.current();
+        val session = WebDriverRunner.hasWebDriverStarted()
+                ? adopt(key)
+                : pollHealthySession(key).orElseGet(() -> allocate(key));
+        session.markUsed();
+        currentSession.set(session);
+        return session;
+    }
+
+    /**
+     * Resets the session bound to the current thread and returns it to the pool. Sessions that are marked for
+     * recycling, exceeded their use limit, fail the reset or the health probe are quit instead.
+     */
+    public static void release() {
+        val session = currentSession.get();
+        currentSession.remove();
+        if (Objects.isNull(session)) {
+            return;
+        }
+        // the test might have closed or replaced the browser on its own
+        val isStillBound = WebDriverRunner.hasWebDriverStarted() && WebDriverRunner.getWebDriver() == session.getWebDriver();
+        if (!isStillBound) {
+            log.info("{} is no longer bound to the test thread, not returning it to the pool", session);
+            WebDriverRunner.closeWebDriver();
+            recycle(session);
+            return;
+        }
+        unbindWebDriver();
+        if (session.getUseCount() >= ENVIRONMENT_CONFIG.getSessionPoolMaxUses()) {
+            session.setMarkedForRecycling(true);
+        }
+        if (!session.isMarkedForRecycling() && !SessionResetter.reset(session.getWebDriver()).isSuccessful()) {
+            session.setMarkedForRecycling(true);
+        }
+        val idle = idleSessions.computeIfAbsent(session.getKey(), k -> new ConcurrentLinkedDeque<>());
+        if (session.isMarkedForRecycling() || !isHealthy(session) || idle.size() >= ENVIRONMENT_CONFIG.getSessionPoolMaxIdle()) {
+            recycle(session);
+            return;
+        }
+        idle.offerFirst(session);
+    }
+
+    /**
+     * Quits all idle sessions. Meant to be called once, at the end of the run.
+     */
+    public static void shutdown() {
+        idleSessions.values().forEach(idle -> {
+            PooledSession session;
+            while ((session = idle.pollFirst()) != null) {
+                quit(session);
+            }
+        });
+        log.info("Session pool summary: {}", metrics);
+    }
+
+    public static Optional<PooledSession> getCurrentSession() {
+        return Optional.ofNullable(currentSession.get());
+    }
+
+    private static Optional<PooledSession> pollHealthySession(SessionKey key) {
+        val idle = idleSessions.getOrDefault(key, new ConcurrentLinkedDeque<>());
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (isHealthy(session)) {
+                WebDriverRunner.setWebDriver(session.getWebDriver());
+                metrics.recordHit();
+                log.info("Reusing {}", session);
+                return Optional.of(session);
+            }
+            log.info("{} failed the health probe, recycling it", session);
+            recycle(session);
+        }
+        return Optional.empty();
+    }
+
+    @SneakyThrows
+    private static PooledSession allocate(SessionKey key) {
+        val queueWaitMillis = SessionSlots.admit();
+        SessionSlots.reportQueueWait("New " + key + " session", queueWaitMillis);
+        val start = System.currentTimeMillis();
+        val webDriver = WebDriverRunner.getAndCheckWebDriver();
+        val allocationMillis = System.currentTimeMillis() - start;
+        metrics.recordMiss(allocationMillis);
+        val session = new PooledSession(key, webDriver, allocationMillis);
+        log.info("Allocated {} in {} ms, after {} ms in the session slots queue", session, allocationMillis, queueWaitMillis);
+        return session;
+    }
+
+    /**
+     * The browser has been opened outside of the pool (e.g. in @BeforeAll fixture), let's take it over
+     * instead of leaking it.
+     */
+    private static PooledSession adopt(SessionKey key) {
+        val session = new PooledSession(key, WebDriverRunner.getWebDriver(), 0);
+        log.info("Adopting {} opened outside of the pool", session);
+        return session;
+    }
+
+    /**
+     * Detaches the session from the current thread without quitting it. Selenide has no other API for that:
+     * closeWebDriver() quits the session and using() restores whatever was bound before, so the deprecated
+     * container method is confined here.
+     */
+    @SuppressWarnings("deprecation")
+    private static void unbindWebDriver() {
+        WebDriverRunner.webdriverContainer.resetWebDriver();
+    }
+
+    private static boolean isHealthy(PooledSession session) {
+        try {
+            val webDriver = session.getWebDriver();
+            return !webDriver.getWindowHandles().isEmpty()
+                    && Objects.nonNull(((JavascriptExecutor) webDriver).executeScript("return document.readyState"));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void recycle(PooledSession session) {
+        metrics.recordRecycle();
+        quit(session);
+    }
+
+    private static void quit(PooledSession session) {
+        try {
+            session.getWebDriver().quit();
+        } catch (WebDriverException e) {
+            log.warn("Could not quit {}: {}", session, e.toString());
+        }
+    }
+}
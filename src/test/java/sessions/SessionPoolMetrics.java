@@ -0,0 +1,65 @@
+package sessions;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters describing how well the SessionPool performs. Summary is logged at the end of the run.
+ */
+public class SessionPoolMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder allocationTotalMillis = new LongAdder();
+    private final LongAccumulator allocationMaxMillis = new LongAccumulator(Math::max, 0);
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss(long allocationMillis) {
+        misses.increment();
+        allocationTotalMillis.add(allocationMillis);
+        allocationMaxMillis.accumulate(allocationMillis);
+    }
+
+    void recordRecycle() {
+        recycled.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRecycled() {
+        return recycled.sum();
+    }
+
+    public double getHitRatio() {
+        val total = getHits() + getMisses();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    public long getAverageAllocationMillis() {
+        val misses = getMisses();
+        return misses == 0 ? 0 : allocationTotalMillis.sum() / misses;
+    }
+
+    public long getMaxAllocationMillis() {
+        return allocationMaxMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "hits: %d, misses: %d (hit ratio %.0f%%), recycled: %d, allocation time avg/max: %d/%d ms",
+                getHits(), getMisses(), getHitRatio() * 100, getRecycled(), getAverageAllocationMillis(), getMaxAllocationMillis());
+    }
+}
@@ -0,0 +1,246 @@
+package sessions;
+
+import com.codeborne.selenide.WebDriverRunner;
+import devtools.CdpManager;
+import io.qameta.allure.Allure;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.utils.URIBuilder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Returns live browser session to a clean state, so it can be reused by another test instead of being torn down:
+ * - closes stray windows (e.g. left by Browser.runInNewTab), leaving only the first one
+ * - clears cookies of all domains
+ * - clears localStorage, sessionStorage, IndexedDB, service workers and cache storage of visited origins
+ * - navigates to blank page
+ *
+ * Visited origins are the ones recorded by OriginRecorder while the test navigated, plus the ones of open windows
+ * and, on Chromium, the domains of all cookies in the browser (which covers redirects and clicked links).
+ * On Chromium-based browsers this is done via CDP, on other browsers via WebDriver and JS, which can reach only
+ * the origin of the current page. Each step is timed, if any of them fails the session is marked for recycling.
+ */
+@Slf4j
+public class SessionResetter {
+
+    private static final String ORIGIN_STORAGE_TYPES = "local_storage,indexeddb,service_workers,cache_storage";
+    private static final String CLEAR_SESSION_STORAGE_SCRIPT = "try { window.sessionStorage.clear(); } catch (e) {}";
+    private static final String CLEAR_ORIGIN_STORAGE_SCRIPT = String.join("\n",
+            "var done = arguments[arguments.length - 1];",
+            "if (!/^https?:$/.test(window.location.protocol)) { done(true); return; }",
+            "try { window.localStorage.clear(); } catch (e) {}",
+            "var deleteDatabase = function (db) { return new Promise(function (resolve) {",
+            "    var request = indexedDB.deleteDatabase(db.name);",
+            "    request.onsuccess = request.onerror = request.onblocked = resolve;",
+            "}); };",
+            "Promise.all([",
+            "    window.indexedDB && indexedDB.databases",
+            "        ? indexedDB.databases().then(function (dbs) { return Promise.all(dbs.map(deleteDatabase)); }) : null,",
+            "    navigator.serviceWorker",
+            "        ? navigator.serviceWorker.getRegistrations().then(function (registrations) {",
+            "            return Promise.all(registrations.map(function (r) { return r.unregister(); })); }) : null,",
+            "    window.caches",
+            "        ? caches.keys().then(function (keys) { return Promise.all(keys.map(function (k) { return caches.delete(k); })); }) : null",
+            "]).then(function () { done(true); }, function (e) { done(String(e)); });");
+
+    private static final Map<WebDriver, Set<String>> visitedOrigins = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final List<Map.Entry<String, BiConsumer<WebDriver, Set<String>>>> resetSteps = List.of(
+            Map.entry("Collect visited origins", SessionResetter::collectOrigins),
+            Map.entry("Close stray windows", (webDriver, origins) -> closeStrayWindows(webDriver)),
+            Map.entry("Clear session storage", (webDriver, origins) -> clearSessionStorage(webDriver)),
+            Map.entry("Clear cookies", (webDriver, origins) -> clearCookies(webDriver)),
+            Map.entry("Clear origin storage", SessionResetter::clearOriginStorage),
+            Map.entry("Open blank page", (webDriver, origins) -> webDriver.navigate().to("about:blank"))
+    );
+
+    public static ResetReport reset() {
+        return reset(getWebDriver());
+    }
+
+    /**
+     * Runs all reset steps, even if some of them fail.
+     *
+     * @param webDriver session to reset
+     * @return timing and outcome of each step
+     */
+    public static ResetReport reset(WebDriver webDriver) {
+        val origins = new LinkedHashSet<String>();
+        val stepResults = new ArrayList<StepResult>();
+        resetSteps.forEach(step -> {
+            val start = System.currentTimeMillis();
+            String error = null;
+            try {
+                step.getValue().accept(webDriver, origins);
+            } catch (RuntimeException e) {
+                error = e.toString().split("\n", 2)[0];
+            }
+            stepResults.add(new StepResult(step.getKey(), System.currentTimeMillis() - start, error));
+        });
+        val report = new ResetReport(stepResults);
+        Allure.addAttachment("Browser session reset", report.toString());
+        if (report.isSuccessful()) {
+            log.info("Session reset in {} ms", report.getTotalMillis());
+        } else {
+            log.warn("Session reset failed, recycling the session:\n{}", report);
+            SessionPool.getCurrentSession()
+                    .filter(session -> session.getWebDriver() == webDriver)
+                    .ifPresent(session -> session.setMarkedForRecycling(true));
+        }
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectOrigins(WebDriver webDriver, Set<String> origins) {
+        Optional.ofNullable(visitedOrigins.remove(CdpManager.unwrap(webDriver))).ifPresent(origins::addAll);
+        if (CdpManager.isCdpSupported(webDriver)) {
+            val cookies = (List<Map<String, Object>>) CdpManager.executeCdpCommand(webDriver, "Network.getAllCookies", Map.of()).get("cookies");
+            cookies.stream()
+                    .map(cookie -> StringUtils.removeStart((String) cookie.get("domain"), "."))
+                    .forEach(domain -> {
+                        origins.add("https://" + domain);
+                        origins.add("http://" + domain);
+                    });
+        }
+        val currentWindow = webDriver.getWindowHandle();
+        webDriver.getWindowHandles().forEach(handle -> origins.add(toOrigin(webDriver.switchTo().window(handle).getCurrentUrl())));
+        webDriver.switchTo().window(currentWindow);
+        origins.remove(null);
+    }
+
+    private static void closeStrayWindows(WebDriver webDriver) {
+        val windowHandles = webDriver.getWindowHandles().iterator();
+        val mainWindow = windowHandles.next();
+        windowHandles.forEachRemaining(handle -> webDriver.switchTo().window(handle).close());
+        webDriver.switchTo().window(mainWindow);
+    }
+
+    private static void clearSessionStorage(WebDriver webDriver) {
+        ((JavascriptExecutor) webDriver).executeScript(CLEAR_SESSION_STORAGE_SCRIPT);
+    }
+
+    private static void clearCookies(WebDriver webDriver) {
+        if (CdpManager.isCdpSupported(webDriver)) {
+            CdpManager.executeCdpCommand(webDriver, "Network.clearBrowserCookies", Map.of());
+        } else {
+            webDriver.manage().deleteAllCookies();
+        }
+    }
+
+    private static void clearOriginStorage(WebDriver webDriver, Set<String> origins) {
+        if (CdpManager.isCdpSupported(webDriver)) {
+            origins.forEach(origin -> CdpManager.executeCdpCommand(
+                    webDriver,
+                    "Storage.clearDataForOrigin",
+                    Map.of("origin", origin, "storageTypes", ORIGIN_STORAGE_TYPES)));
+            return;
+        }
+        val result = ((JavascriptExecutor) webDriver).executeAsyncScript(CLEAR_ORIGIN_STORAGE_SCRIPT);
+        if (!Boolean.TRUE.equals(result)) {
+            throw new IllegalStateException("Could not clear storage of current origin: " + result);
+        }
+    }
+
+    private static void recordOrigin(WebDriver webDriver, String url) {
+        Optional.ofNullable(toOrigin(url)).ifPresent(origin -> visitedOrigins
+                .computeIfAbsent(CdpManager.unwrap(webDriver), key -> ConcurrentHashMap.newKeySet())
+                .add(origin));
+    }
+
+    /**
+     * Records origins of the session as the test visits them, so reset() clears storage of all of them, not only
+     * of the windows left open. Selenide navigates with navigate().to(), which is run on the thread owning the session;
+     * URLs read by the test catch the redirects and clicked links.
+     */
+    public static class OriginRecorder implements WebDriverListener {
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            recordOrigin(driver, url);
+        }
+
+        @Override
+        public void beforeTo(WebDriver.Navigation navigation, String url) {
+            if (WebDriverRunner.hasWebDriverStarted()) {
+                recordOrigin(getWebDriver(), url);
+            }
+        }
+
+        @Override
+        public void afterGetCurrentUrl(String result, WebDriver driver) {
+            recordOrigin(driver, result);
+        }
+    }
+
+    /**
+     * @return scheme://host[:port] of http(s) URL, null for other URLs (e.g. about:blank, data:)
+     */
+    private static String toOrigin(String url) {
+        try {
+            val uri = new URIBuilder(url);
+            if (Objects.isNull(uri.getScheme()) || !uri.getScheme().startsWith("http")) {
+                return null;
+            }
+            return new URIBuilder().setScheme(uri.getScheme()).setHost(uri.getHost()).setPort(uri.getPort()).build().toString();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    @Value
+    public static class StepResult {
+
+        String name;
+        long durationMillis;
+        String error;
+
+        public boolean isSuccessful() {
+            return Objects.isNull(error);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %6d ms  %s", name, durationMillis, isSuccessful() ? "OK" : "FAILED: " + error);
+        }
+    }
+
+    @Value
+    public static class ResetReport {
+
+        List<StepResult> steps;
+
+        public boolean isSuccessful() {
+            return steps.stream().allMatch(StepResult::isSuccessful);
+        }
+
+        public long getTotalMillis() {
+            return steps.stream().mapToLong(StepResult::getDurationMillis).sum();
+        }
+
+        @Override
+        public String toString() {
+            return steps.stream().map(StepResult::toString).collect(Collectors.joining("\n"))
+                    + String.format("%nTotal: %d ms", getTotalMillis());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package sessions;
+
+import exception.EnvironmentError;
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Admission control for browser sessions: one slot per session we're allowed to hold in Moon ('moonSessionCapacity'),
+ * held for the whole lifetime of the session, i.e. also while it's idle in SessionPool. Usage:
+ *
+ *      SessionSlots.admit();       // before a session may be created on current thread, blocks until a slot is free
+ *      ...                         // the first call of the new session takes the slot over, its quit frees the slot
+ *      SessionSlots.dismiss();     // frees the admitted slot, if no session has taken it over in the meantime
+ *
+ * Registered as Selenide's WebDriverListener by SessionAdmissionExtension, to see the sessions being started and quit.
+ */
+@Slf4j
+public class SessionSlots implements WebDriverListener {
+
+    private static final Semaphore slots = new Semaphore(ENVIRONMENT_CONFIG.getMoonSessionCapacity(), true);
+    private static final Set<WebDriver> sessionsHoldingSlot = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+    private static final Map<Thread, Boolean> admittedThreads = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+        if (!sessionsHoldingSlot.contains(driver) && Objects.nonNull(admittedThreads.remove(Thread.currentThread()))) {
+            sessionsHoldingSlot.add(driver);
+        }
+    }
+
+    @Override
+    public void afterQuit(WebDriver driver) {
+        if (sessionsHoldingSlot.remove(driver)) {
+            slots.release();
+        }
+    }
+
+    /**
+     * Waits for a free slot for the session about to be created on current thread. Does nothing if the thread has
+     * been admitted already.
+     *
+     * @return time spent waiting for the slot, in ms
+     */
+    public static long admit() throws InterruptedException {
+        if (admittedThreads.containsKey(Thread.currentThread())) {
+            return 0;
+        }
+        val start = System.currentTimeMillis();
+        val timeoutMinutes = ENVIRONMENT_CONFIG.getBrowserAllocationTimeout();
+        if (!slots.tryAcquire(timeoutMinutes, TimeUnit.MINUTES)) {
+            throw new EnvironmentError(String.format("No browser session slot has been freed within %d minutes", timeoutMinutes));
+        }
+        admittedThreads.put(Thread.currentThread(), true);
+        return System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Frees the slot admitted on current thread, unless a session has taken it over
+     */
+    public static void dismiss() {
+        if (Objects.nonNull(admittedThreads.remove(Thread.currentThread()))) {
+            slots.release();
+        }
+    }
+
+    /**
+     * Logs the time spent waiting for the slot and attaches it to the report of the current test
+     *
+     * @param waiter what has been waiting, e.g. the test name
+     */
+    public static void reportQueueWait(String waiter, long queueWaitMillis) {
+        log.info("{} waited {} ms for browser session slot", waiter, queueWaitMillis);
+        Allure.addAttachment("Session queue wait", String.format(
+                "%d ms (%d of %d slots in use)", queueWaitMillis, getSlotsInUse(), getCapacity()));
+    }
+
+    public static int getCapacity() {
+        return ENVIRONMENT_CONFIG.getMoonSessionCapacity();
+    }
+
+    public static int getSlotsInUse() {
+        return getCapacity() - slots.availablePermits();
+    }
+}
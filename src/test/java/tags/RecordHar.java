@@ -0,0 +1,24 @@
+package tags;
+
+import org.junit.jupiter.api.Tag;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records network traffic of the test as HAR file, see HarRecordingExtension. To record all the tests,
+ * set 'har.recording.enabled' instead.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Tag("har")
+public @interface RecordHar {
+
+    /**
+     * HAR of the test is attached when the test fails or runs longer than this. Negative value means
+     * 'har.durationBudget' is used.
+     */
+    long durationBudgetMs() default -1;
+}
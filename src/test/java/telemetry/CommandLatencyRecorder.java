@@ -0,0 +1,189 @@
+package telemetry;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Records latency of each WebDriver call (findElement, executeScript, getCurrentUrl, getCookies, getScreenshotAs...)
+ * in HDR histograms per command, for each session and for the test running on current thread. With remote browsers,
+ * that's mostly the round trip to the grid. Registered as Selenide's WebDriverListener by CommandLatencyExtension,
+ * which attaches the test's summary to the report; report() writes the summary of the run per session and overall.
+ * The reports directory is shared by the test JVMs of a gradle invocation (test-retry rounds included), so each of
+ * them writes its own webdriver-command-latencies-<pid>.csv.
+ *
+ * Commands are named after the declaring interface and method, e.g. 'WebDriver.findElement', 'WebElement.click'.
+ */
+@Slf4j
+public class CommandLatencyRecorder implements WebDriverListener {
+
+    private static final String REPORT_FILE_NAME = String.format("webdriver-command-latencies-%d.csv", ProcessHandle.current().pid());
+    // 3 significant digits keep each histogram in single kilobytes
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Map<WebDriver, SessionLatencies> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Queue<SessionLatencies> allSessions = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<SessionLatencies> currentSession = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, Histogram>> testLatencies = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        // element, window etc. calls have no driver to them, but they follow a driver call on the same thread
+        if (target instanceof WebDriver) {
+            val session = currentSession.get();
+            if (Objects.isNull(session) || !session.isOf((WebDriver) target)) {
+                currentSession.set(sessions.computeIfAbsent((WebDriver) target, SessionLatencies::new));
+            }
+        }
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        // afterAnyCall() is not called for the failed calls
+        record(method);
+    }
+
+    /**
+     * Starts collecting the latencies of the test running on current thread
+     */
+    public static void startTest() {
+        testLatencies.get().clear();
+    }
+
+    /**
+     * @return summary table of the latencies of the test running on current thread, empty if it sent no commands
+     */
+    public static String getTestSummary() {
+        return getSummary(testLatencies.get());
+    }
+
+    /**
+     * Logs the summary of the whole run and writes it, along with the summaries of each session, as CSV to the
+     * framework reports dir. Meant to be called once, at the end of the run.
+     */
+    public static void report() {
+        val runLatencies = new HashMap<String, Histogram>();
+        allSessions.forEach(session -> session.getLatencies().forEach((command, histogram) ->
+                runLatencies.computeIfAbsent(command, key -> new Histogram(SIGNIFICANT_DIGITS)).add(histogram)));
+        if (runLatencies.isEmpty()) {
+            return;
+        }
+        log.info("WebDriver command latencies of {} sessions, sorted by total time:\n{}", allSessions.size(), getSummary(runLatencies));
+        val csv = new StringBuilder("scope,command,count,totalMs,meanMs,p50Ms,p90Ms,p99Ms,maxMs\n");
+        appendCsv(csv, "run", runLatencies);
+        allSessions.forEach(session -> appendCsv(csv, "session " + session.getSessionId(), session.getLatencies()));
+        val reportFile = Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir(), REPORT_FILE_NAME);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, csv);
+        } catch (IOException e) {
+            log.warn("Could not write WebDriver command latencies to {}: {}", reportFile, e.toString());
+        }
+    }
+
+    private static void record(Method method) {
+        val startTime = startTimes.get().poll();
+        if (Objects.isNull(startTime)) {
+            return;
+        }
+        val latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+        val command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        testLatencies.get().computeIfAbsent(command, key -> new Histogram(SIGNIFICANT_DIGITS)).recordValue(latencyMicros);
+        val session = currentSession.get();
+        if (Objects.nonNull(session)) {
+            session.record(command, latencyMicros);
+        }
+    }
+
+    private static String getSummary(Map<String, ? extends Histogram> latencies) {
+        if (latencies.isEmpty()) {
+            return "";
+        }
+        return String.format("%-40s %8s %10s %9s %9s %9s %9s %9s%n", "command", "count", "total ms", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms")
+                + latencies.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, ? extends Histogram> entry) -> getTotalMs(entry.getValue())).reversed())
+                .map(entry -> {
+                    val histogram = entry.getValue();
+                    return String.format("%-40s %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f", entry.getKey(), histogram.getTotalCount(),
+                            getTotalMs(histogram), histogram.getMean() / 1000, toMs(histogram.getValueAtPercentile(50)),
+                            toMs(histogram.getValueAtPercentile(90)), toMs(histogram.getValueAtPercentile(99)), toMs(histogram.getMaxValue()));
+                })
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static void appendCsv(StringBuilder csv, String scope, Map<String, ? extends Histogram> latencies) {
+        new TreeMap<>(latencies).forEach((command, histogram) -> csv.append(String.format("\"%s\",%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                scope, command, histogram.getTotalCount(), getTotalMs(histogram), histogram.getMean() / 1000,
+                toMs(histogram.getValueAtPercentile(50)), toMs(histogram.getValueAtPercentile(90)),
+                toMs(histogram.getValueAtPercentile(99)), toMs(histogram.getMaxValue()))));
+    }
+
+    private static double getTotalMs(Histogram histogram) {
+        return histogram.getMean() * histogram.getTotalCount() / 1000;
+    }
+
+    private static double toMs(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static class SessionLatencies {
+
+        // weak, as the session is the key of its own latencies
+        private final WeakReference<WebDriver> webDriver;
+        @Getter
+        private final String sessionId;
+        // pooled sessions move between threads, hence the concurrent histograms
+        @Getter
+        private final Map<String, ConcurrentHistogram> latencies = new ConcurrentHashMap<>();
+
+        SessionLatencies(WebDriver webDriver) {
+            this.webDriver = new WeakReference<>(webDriver);
+            this.sessionId = webDriver instanceof RemoteWebDriver
+                    ? String.valueOf(((RemoteWebDriver) webDriver).getSessionId())
+                    : Integer.toHexString(System.identityHashCode(webDriver));
+            allSessions.add(this);
+        }
+
+        boolean isOf(WebDriver driver) {
+            return webDriver.get() == driver;
+        }
+
+        void record(String command, long latencyMicros) {
+            latencies.computeIfAbsent(command, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS)).recordValue(latencyMicros);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package telemetry;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports to the primary exporter until it fails for the first time, then (with the failed batch) switches to
+ * the fallback one for the rest of the run. That way a run without a collector doesn't try to reach it for each
+ * batch, and no spans are lost.
+ */
+@Slf4j
+class FallbackSpanExporter implements SpanExporter {
+
+    private static final long PRIMARY_EXPORT_TIMEOUT_SECONDS = 15;
+
+    private final SpanExporter primary;
+    private final SpanExporter fallback;
+    private volatile boolean isFallbackActive;
+
+    FallbackSpanExporter(SpanExporter primary, SpanExporter fallback) {
+        this.primary = primary;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (!isFallbackActive) {
+            val result = primary.export(spans).join(PRIMARY_EXPORT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (result.isSuccess()) {
+                return result;
+            }
+            log.warn("Span export to {} failed, exporting to {} for the rest of the run", primary, fallback);
+            isFallbackActive = true;
+        }
+        return fallback.export(spans);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofAll(List.of(primary.flush(), fallback.flush()));
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofAll(List.of(primary.shutdown(), fallback.shutdown()));
+    }
+}
@@ -0,0 +1,78 @@
+package telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends one JSON object per span to a local file, for runs without OTLP collector. The format is flat on purpose,
+ * e.g. the slowest WebDriver commands of the run:
+ *
+ *      jq -s 'map(select(.name | startswith("WebDriver"))) | sort_by(-.durationMs) | .[:20]' spans.jsonl
+ */
+@Slf4j
+class JsonLinesSpanExporter implements SpanExporter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path spansFile;
+
+    JsonLinesSpanExporter(Path spansFile) {
+        this.spansFile = spansFile;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            val lines = new StringBuilder();
+            for (val span : spans) {
+                lines.append(OBJECT_MAPPER.writeValueAsString(toJsonLine(span))).append('\n');
+            }
+            Files.createDirectories(spansFile.getParent());
+            Files.writeString(spansFile, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not append {} spans to {}: {}", spans.size(), spansFile, e.toString());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static Map<String, Object> toJsonLine(SpanData span) {
+        val attributes = new LinkedHashMap<String, Object>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        val line = new LinkedHashMap<String, Object>();
+        line.put("traceId", span.getTraceId());
+        line.put("spanId", span.getSpanId());
+        line.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        line.put("name", span.getName());
+        line.put("kind", span.getKind().toString());
+        line.put("startEpochMs", TimeUnit.NANOSECONDS.toMillis(span.getStartEpochNanos()));
+        line.put("durationMs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0);
+        line.put("status", span.getStatus().getStatusCode().toString());
+        line.put("statusDescription", span.getStatus().getDescription());
+        line.put("attributes", attributes);
+        return line;
+    }
+}
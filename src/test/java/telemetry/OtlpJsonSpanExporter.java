@@ -0,0 +1,146 @@
+package telemetry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Exports spans to OTLP/HTTP collector, using the JSON encoding of the protocol. Keeps the framework free of
+ * the OTLP exporter and its HTTP client dependencies, as the spans are the only signal we export.
+ */
+@Slf4j
+class OtlpJsonSpanExporter implements SpanExporter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI endpoint;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+    OtlpJsonSpanExporter(String endpoint) {
+        this.endpoint = URI.create(endpoint);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            val request = HttpRequest.newBuilder(endpoint)
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(toRequest(spans))))
+                    .build();
+            val response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                return CompletableResultCode.ofSuccess();
+            }
+            log.warn("OTLP collector at {} rejected {} spans with HTTP {}", endpoint, spans.size(), response.statusCode());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize spans: {}", e.toString());
+        } catch (IOException e) {
+            log.debug("OTLP collector at {} is not reachable: {}", endpoint, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return CompletableResultCode.ofFailure();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * ExportTraceServiceRequest, spans grouped by resource and instrumentation scope
+     */
+    private static Map<String, Object> toRequest(Collection<SpanData> spans) {
+        val resourceSpans = spans.stream()
+                .collect(Collectors.groupingBy(SpanData::getResource, LinkedHashMap::new,
+                        Collectors.groupingBy(SpanData::getInstrumentationScopeInfo, LinkedHashMap::new, Collectors.toList())))
+                .entrySet().stream()
+                .map(resource -> Map.of(
+                        "resource", Map.of("attributes", toAttributes(resource.getKey().getAttributes())),
+                        "scopeSpans", resource.getValue().entrySet().stream()
+                                .map(scope -> Map.of(
+                                        "scope", Map.of("name", scope.getKey().getName()),
+                                        "spans", scope.getValue().stream()
+                                                .map(OtlpJsonSpanExporter::toSpan)
+                                                .collect(Collectors.toList())))
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+        return Map.of("resourceSpans", resourceSpans);
+    }
+
+    private static Map<String, Object> toSpan(SpanData span) {
+        val otlpSpan = new LinkedHashMap<String, Object>();
+        otlpSpan.put("traceId", span.getTraceId());
+        otlpSpan.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            otlpSpan.put("parentSpanId", span.getParentSpanId());
+        }
+        otlpSpan.put("name", span.getName());
+        // OTLP enum starts with SPAN_KIND_UNSPECIFIED
+        otlpSpan.put("kind", span.getKind().ordinal() + 1);
+        otlpSpan.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+        otlpSpan.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+        otlpSpan.put("attributes", toAttributes(span.getAttributes()));
+        otlpSpan.put("events", span.getEvents().stream()
+                .map(event -> Map.of(
+                        "name", event.getName(),
+                        "timeUnixNano", String.valueOf(event.getEpochNanos()),
+                        "attributes", toAttributes(event.getAttributes())))
+                .collect(Collectors.toList()));
+        // both enums follow the order of OTLP ones
+        otlpSpan.put("status", Map.of(
+                "code", span.getStatus().getStatusCode().ordinal(),
+                "message", span.getStatus().getDescription()));
+        return otlpSpan;
+    }
+
+    private static List<Map<String, Object>> toAttributes(Attributes attributes) {
+        val otlpAttributes = new ArrayList<Map<String, Object>>();
+        attributes.forEach((key, value) -> otlpAttributes.add(Map.of("key", key.getKey(), "value", toAnyValue(key, value))));
+        return otlpAttributes;
+    }
+
+    private static Map<String, Object> toAnyValue(AttributeKey<?> key, Object value) {
+        switch (key.getType()) {
+            case BOOLEAN:
+                return Map.of("boolValue", value);
+            case LONG:
+                // int64 is a string in OTLP JSON
+                return Map.of("intValue", String.valueOf(value));
+            case DOUBLE:
+                return Map.of("doubleValue", value);
+            case STRING:
+                return Map.of("stringValue", value);
+            default:
+                return Map.of("arrayValue", Map.of("values", ((List<?>) value).stream()
+                        .map(item -> Map.of("stringValue", String.valueOf(item)))
+                        .collect(Collectors.toList())));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package telemetry;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import lombok.Value;
+import lombok.val;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces each Allure step as a span, registered via META-INF/services. The span of a running step is the current one,
+ * so page loads and WebDriver commands within the step become its children.
+ *
+ * Steps replayed by BufferedStepWriter are already finished, they're traced with their original timing instead.
+ */
+public class StepTracingListener implements StepLifecycleListener {
+
+    private static final ThreadLocal<Deque<StepSpan>> stepSpans = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        if (!Tracing.isEnabled()) {
+            return;
+        }
+        val spanBuilder = Tracing.getTracer().spanBuilder(result.getName());
+        if (Objects.nonNull(result.getStop())) {
+            val span = spanBuilder.setStartTimestamp(result.getStart(), TimeUnit.MILLISECONDS).startSpan();
+            setStatus(span, result.getStatus());
+            span.end(result.getStop(), TimeUnit.MILLISECONDS);
+            return;
+        }
+        val span = spanBuilder.startSpan();
+        stepSpans.get().push(new StepSpan(result, span, span.makeCurrent()));
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        val spans = stepSpans.get();
+        // replayed steps are not on the stack
+        if (spans.isEmpty() || spans.peek().getResult() != result) {
+            return;
+        }
+        val stepSpan = spans.pop();
+        setStatus(stepSpan.getSpan(), result.getStatus());
+        stepSpan.getSpan().end();
+        stepSpan.getScope().close();
+    }
+
+    private static void setStatus(Span span, Status status) {
+        if (status == Status.FAILED || status == Status.BROKEN) {
+            span.setStatus(StatusCode.ERROR, status.value());
+        }
+    }
+
+    @Value
+    private static class StepSpan {
+
+        StepResult result;
+        Span span;
+        Scope scope;
+    }
+}
@@ -0,0 +1,121 @@
+package telemetry;
+
+import configuration.EnvironmentConfig;
+import helpers.ProjectDetectionExtension;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.qameta.allure.Allure;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * OpenTelemetry instrumentation of the framework, enabled with 'telemetry.tracing.enabled'. The spans are exported
+ * to the OTLP collector at 'telemetry.otlp.endpoint', or to the JSON-lines file in the framework reports dir when
+ * there's no collector running. The file is appended to by all the test JVMs of one gradle invocation, including
+ * test-retry rounds, and wiped with the rest of build/ by the next one (test dependsOn clean). Span hierarchy:
+ *
+ *      test (TracingExtension)
+ *          Allure step (StepTracingListener)
+ *              page open / load (Openable.open(), Loadable.waitUntilLoaded())
+ *                  WebDriver command (WebDriverCommandTracer)
+ *
+ * When disabled, the no-op tracer is used, so the instrumentation costs next to nothing.
+ */
+@Slf4j
+public class Tracing {
+
+    public static final String SPANS_FILE_NAME = "spans.jsonl";
+    public static final AttributeKey<String> PAGE_NAME = AttributeKey.stringKey("page.name");
+    public static final AttributeKey<String> PROJECT = AttributeKey.stringKey("test.project");
+    public static final AttributeKey<String> VIEW_TYPE = AttributeKey.stringKey("view.type");
+    public static final AttributeKey<Long> RETRY_COUNT = AttributeKey.longKey("test.retry.count");
+    private static final String INSTRUMENTATION_NAME = "ui-framework";
+    private static final SdkTracerProvider tracerProvider = ENVIRONMENT_CONFIG.isTracingEnabled() ? createTracerProvider() : null;
+    private static final OpenTelemetry openTelemetry = tracerProvider == null
+            ? OpenTelemetry.noop()
+            : OpenTelemetrySdk.builder().setTracerProvider(tracerProvider).build();
+
+    public static boolean isEnabled() {
+        return tracerProvider != null;
+    }
+
+    public static Tracer getTracer() {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    /**
+     * Runs the code in a child span of the current one, the span fails along with the code
+     */
+    @SneakyThrows
+    public static <T> T inSpan(String name, Attributes attributes, Allure.ThrowableRunnable<T> runnable) {
+        val span = getTracer().spanBuilder(name).setAllAttributes(attributes).startSpan();
+        Scope scope = span.makeCurrent();
+        try {
+            return runnable.run();
+        } catch (Throwable e) {
+            recordFailure(span, e);
+            throw e;
+        } finally {
+            scope.close();
+            span.end();
+        }
+    }
+
+    public static void inSpan(String name, Attributes attributes, Allure.ThrowableRunnableVoid runnable) {
+        inSpan(name, attributes, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return attributes describing the context of given page, to be used with inSpan()
+     */
+    public static Attributes pageAttributes(String pageName) {
+        val attributes = Attributes.builder()
+                .put(PAGE_NAME, pageName)
+                .put(VIEW_TYPE, EnvironmentConfig.getViewType().toString());
+        ProjectDetectionExtension.getCurrentProjectName().ifPresent(project -> attributes.put(PROJECT, project));
+        return attributes.build();
+    }
+
+    public static void recordFailure(Span span, Throwable e) {
+        span.recordException(e);
+        span.setStatus(StatusCode.ERROR, e.toString());
+    }
+
+    /**
+     * Exports the remaining spans. Meant to be called once, at the end of the run.
+     */
+    public static void shutdown() {
+        if (isEnabled()) {
+            tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static SdkTracerProvider createTracerProvider() {
+        val exporter = new FallbackSpanExporter(
+                new OtlpJsonSpanExporter(ENVIRONMENT_CONFIG.getOtlpEndpoint()),
+                new JsonLinesSpanExporter(Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir(), SPANS_FILE_NAME)));
+        return SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(Attributes.of(
+                        AttributeKey.stringKey("service.name"), INSTRUMENTATION_NAME))))
+                .addSpanProcessor(BatchSpanProcessor.builder(exporter).build())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package telemetry;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import lombok.val;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Traces each call to WebDriver (and its elements, windows etc.) as a client span, child of the current step/page
+ * span. Registered as Selenide's WebDriverListener by TracingExtension, only when the tracing is enabled.
+ */
+public class WebDriverCommandTracer implements WebDriverListener {
+
+    private static final ThreadLocal<Deque<Span>> commandSpans = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        commandSpans.get().push(Tracing.getTracer().spanBuilder("WebDriver " + method.getName())
+                .setSpanKind(SpanKind.CLIENT)
+                .startSpan());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        val span = commandSpans.get().poll();
+        if (Objects.nonNull(span)) {
+            span.end();
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        // afterAnyCall() is not called for the failed calls
+        val span = commandSpans.get().poll();
+        if (Objects.nonNull(span)) {
+            Tracing.recordFailure(span, e.getTargetException());
+            span.end();
+        }
+    }
+}
@@ -5,23 +5,115 @@ import com.google.common.base.Objects;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.apache.http.client.utils.URIBuilder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+import waiters.Poller;
+import waiters.PollingStrategy;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+import static java.util.Objects.isNull;
+
 public class UriManager {
 
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 500;
+    // longest single browser-side wait, so that Poller can check its abort condition and probes in between
+    private static final long URL_CHANGE_SLICE_MS = 1000;
+    private static final String WAIT_FOR_URL_CHANGE_SCRIPT = String.join("\n",
+            "var lastUrl = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];",
+            "if (window.location.href !== lastUrl) { done(window.location.href); return; }",
+            "var finished = false, poll, timer;",
+            "var finish = function () {",
+            "    if (finished) { return; }",
+            "    finished = true;",
+            "    clearInterval(poll);",
+            "    clearTimeout(timer);",
+            "    window.removeEventListener('popstate', check);",
+            "    window.removeEventListener('hashchange', check);",
+            "    window.removeEventListener('pagehide', finish);",
+            "    done(window.location.href);",
+            "};",
+            "var check = function () { if (window.location.href !== lastUrl) { finish(); } };",
+            "window.addEventListener('popstate', check);",
+            "window.addEventListener('hashchange', check);",
+            // full navigation replaces this document, the next call is run within the new one
+            "window.addEventListener('pagehide', finish);",
+            // History API pushState/replaceState don't fire any event
+            "poll = setInterval(check, 50);",
+            "timer = setTimeout(finish, timeoutMs);");
+
     public static URI getOpenedUri() {
         return getOpenedUri(true, true);
     }
 
     public static URI getOpenedUri(boolean withQuery, boolean withFragment) {
-        val openedUrlStr = WebDriverRunner.url();
+        return toUri(WebDriverRunner.url(), withQuery, withFragment);
+    }
+
+    /**
+     * Waits until the opened URI meets the condition. If 'waiter.url.browserSide' is enabled, the browser itself
+     * waits for each URL change (see waitForUrlChange), so there's one WebDriver round-trip per URL change (or per
+     * second, at most) instead of one per polling tick. Each browser-side wait is a Poller attempt of its own, capped
+     * at a second, so the wait can still be aborted (e.g. on an error page showing at the same URL) in between.
+     *
+     * @param waitName name to record PollingStatistics under
+     * @return the last opened URI (with query and fragment removed unless needed) and polling outcome
+     */
+    public static Poller.PollResult<URI> waitForOpenedUri(String waitName, Predicate<URI> condition, boolean withQuery,
+                                                          boolean withFragment, long timeoutMilliseconds) {
+        if (!ENVIRONMENT_CONFIG.isBrowserSideUrlWaitEnabled()) {
+            return Poller.poll(waitName, () -> getOpenedUri(withQuery, withFragment))
+                    .until(condition)
+                    .withTimeout(timeoutMilliseconds)
+                    .run();
+        }
+        val deadline = System.currentTimeMillis() + timeoutMilliseconds;
+        val lastUrl = new AtomicReference<String>();
+        return Poller.poll(waitName, () -> {
+                    val url = isNull(lastUrl.get())
+                            ? WebDriverRunner.url()
+                            : waitForUrlChange(lastUrl.get(), deadline - System.currentTimeMillis());
+                    lastUrl.set(url);
+                    return toUri(url, withQuery, withFragment);
+                })
+                .until(condition)
+                .withTimeout(timeoutMilliseconds)
+                // the waiting is done by the browser
+                .withStrategy(PollingStrategy.fixed(1))
+                .run();
+    }
+
+    /**
+     * Waits within the browser, with a single async script call, until its URL differs from the given one.
+     * Changes done via History API are detected by the script, full navigation ends the script and the next call
+     * is run within the new document. The call blocks the session, so it's capped at a second (and at the script
+     * timeout), callers are expected to repeat it until their own timeout.
+     *
+     * @return currently opened URL, the same as lastUrl if it hasn't changed within the timeout or the second
+     */
+    public static String waitForUrlChange(String lastUrl, long timeoutMilliseconds) {
+        val webDriver = WebDriverRunner.getWebDriver();
+        val scriptTimeoutMs = webDriver.manage().timeouts().getScriptTimeout().toMillis() - SCRIPT_TIMEOUT_MARGIN_MS;
+        val sliceMs = Math.min(Math.min(timeoutMilliseconds, URL_CHANGE_SLICE_MS), scriptTimeoutMs);
+        try {
+            val url = ((JavascriptExecutor) webDriver).executeAsyncScript(WAIT_FOR_URL_CHANGE_SCRIPT, lastUrl, Math.max(0, sliceMs));
+            return isNull(url) ? WebDriverRunner.url() : url.toString();
+        } catch (WebDriverException e) {
+            // e.g. the document has been unloaded before the script returned, WebDriver waits for the new one here
+            return WebDriverRunner.url();
+        }
+    }
+
+    static URI toUri(String urlStr, boolean withQuery, boolean withFragment) {
         try {
-            val uriBuilder = new URIBuilder(openedUrlStr);
+            val uriBuilder = new URIBuilder(urlStr);
             if (!withQuery) {
                 uriBuilder.removeQuery();
             }
@@ -34,7 +126,7 @@ public class UriManager {
             }
             return uriBuilder.build();
         } catch (URISyntaxException e) {
-            throw new AssertionError(String.format("Browser is showing broken URI: %s", openedUrlStr));
+            throw new AssertionError(String.format("Browser is showing broken URI: %s", urlStr));
         }
     }
 
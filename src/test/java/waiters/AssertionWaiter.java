@@ -1,14 +1,14 @@
 package waiters;
 
-import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.Stopwatch;
 import com.google.common.base.Strings;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import matchers.WrMatcherAssert;
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
 
+import java.util.Objects;
 import java.util.function.Supplier;
 
 import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
@@ -27,9 +27,11 @@ import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
  *      // waiter will call getSomeValue until it matches "expected_value"
  *      waitUntilCall(() -> someApiService.getSomeValue, equalTo("expected_value"));
  *
- * In case of timeout, the most recent AssertionError instance is thrown.
+ * In case of timeout, the most recent AssertionError instance is thrown. The assertion is repeated with
+ * PollingStrategy.adaptive() intervals, unless polling interval is given explicitly.
  *
  */
+@Slf4j
 public class AssertionWaiter {
     public static <T> void waitUntil(T actual, Matcher<? super T> matcher) {
         waitUntil(actual, matcher, ENVIRONMENT_CONFIG.getTimeout());
@@ -44,42 +46,69 @@ public class AssertionWaiter {
     }
 
     public static <T> void waitUntil(String reason, T actual, Matcher<? super T> matcher, long timeoutMilliseconds) {
-        waitUntilCall(reason, () -> actual, matcher, timeoutMilliseconds, Configuration.pollingInterval);
+        waitUntilCall(reason, () -> actual, matcher, timeoutMilliseconds, PollingStrategy.adaptive());
     }
 
     @SneakyThrows
     public static <T> void waitUntilCall(Supplier<T> supplier, Matcher<? super T> matcher) {
-        waitUntilCall("", supplier, matcher, ENVIRONMENT_CONFIG.getTimeout(), Configuration.pollingInterval);
+        waitUntilCall("", supplier, matcher, ENVIRONMENT_CONFIG.getTimeout(), PollingStrategy.adaptive());
     }
 
     @SneakyThrows
     public static <T> void waitUntilCall(String reason, Supplier<T> supplier, Matcher<? super T> matcher) {
-        waitUntilCall(reason, supplier, matcher, ENVIRONMENT_CONFIG.getTimeout(), Configuration.pollingInterval);
+        waitUntilCall(reason, supplier, matcher, ENVIRONMENT_CONFIG.getTimeout(), PollingStrategy.adaptive());
     }
 
     public static <T> void waitUntilCall(Supplier<T> supplier, Matcher<? super T> matcher, long timeoutMilliseconds) {
-        waitUntilCall("", supplier, matcher, timeoutMilliseconds, Configuration.pollingInterval);
+        waitUntilCall("", supplier, matcher, timeoutMilliseconds, PollingStrategy.adaptive());
     }
 
-    @SneakyThrows
     public static <T> void waitUntilCall(String reason, Supplier<T> supplier, Matcher<? super T> matcher, long timeoutMilliseconds,
                                          long pollingMilliseconds) {
-        val stopwatch = new Stopwatch(timeoutMilliseconds);
-        AssertionError lastError;
-        do {
-            try {
-                T actual = supplier.get();
-                if (Strings.isNullOrEmpty(reason)) {
-                    MatcherAssert.assertThat(reason, actual, matcher);
-                } else {
-                    WrMatcherAssert.assertThat(reason, actual, matcher);
-                }
-                return;
-            } catch (AssertionError error) {
-                lastError = error;
+        waitUntilCall(reason, supplier, matcher, timeoutMilliseconds, PollingStrategy.fixed(pollingMilliseconds));
+    }
+
+    public static <T> void waitUntilCall(String reason, Supplier<T> supplier, Matcher<? super T> matcher, long timeoutMilliseconds,
+                                         PollingStrategy pollingStrategy) {
+        // the reason carries test data, so it's logged instead of being a part of the wait name
+        val result = Poller.poll(getWaitName(), () -> getAssertionError(reason, supplier, matcher))
+                .until(Objects::isNull)
+                .comparingBy(error -> Objects.isNull(error) ? null : error.getMessage())
+                .withTimeout(timeoutMilliseconds)
+                .withStrategy(pollingStrategy)
+                .run();
+        log.debug("AssertionWaiter '{}' {} after {} attempts", reason, result.getOutcome(), result.getAttempts());
+        if (!result.isSuccessful()) {
+            throw result.getValue();
+        }
+    }
+
+    /**
+     * @return stable name of the wait, from the method calling the waiter, e.g. "AssertionWaiter in SearchPage.waitForResults"
+     */
+    private static String getWaitName() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !frame.getClassName().equals(AssertionWaiter.class.getName()))
+                .findFirst()
+                .map(frame -> String.format("AssertionWaiter in %s.%s",
+                        frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1), frame.getMethodName()))
+                .orElse("AssertionWaiter"));
+    }
+
+    /**
+     * @return null if the assertion passes
+     */
+    private static <T> AssertionError getAssertionError(String reason, Supplier<T> supplier, Matcher<? super T> matcher) {
+        try {
+            T actual = supplier.get();
+            if (Strings.isNullOrEmpty(reason)) {
+                MatcherAssert.assertThat(reason, actual, matcher);
+            } else {
+                WrMatcherAssert.assertThat(reason, actual, matcher);
             }
-            stopwatch.sleep(pollingMilliseconds);
-        } while (!stopwatch.isTimeoutReached());
-        throw lastError;
+            return null;
+        } catch (AssertionError error) {
+            return error;
+        }
     }
 }
@@ -0,0 +1,176 @@
+package waiters;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Polling engine shared by all the framework's waits (AssertionWaiter, IsOpened, Openable). Calls the probe until
+ * its value meets the condition, the value reaches a terminal state or the timeout is reached. The last attempt
+ * is always done at the deadline. Example usage:
+ *
+ *      val result = Poller.poll("Payment status", () -> paymentService.getStatus(paymentId))
+ *              .until(status -> status.equals("PAID"))
+ *              .abortIf(status -> status.equals("REJECTED"))
+ *              .withTimeout(ENVIRONMENT_CONFIG.getPaymentProcessingTimeout())
+ *              .run();
+ *
+ * The run is also aborted when WaitAbortSignal of the polling thread finds a reason to, see ErrorPageWatchdog.
+ *
+ * Each run is recorded in PollingStatistics under its name, so the waits can be tuned from data, and accounted
+ * to the current test by WaitTimeAccounting.
+ */
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Poller<T> {
+
+    private final String name;
+    private final Probe<T> probe;
+    private Predicate<T> condition = Objects::nonNull;
+    private Predicate<T> terminalState = value -> false;
+    private Function<T, Object> stateOf = value -> value;
+    private long timeoutMs = ENVIRONMENT_CONFIG.getTimeout();
+    private PollingStrategy strategy = PollingStrategy.adaptive();
+
+    /**
+     * @param name name to record statistics under, keep it free of test data so the runs of the same wait are grouped
+     */
+    public static <T> Poller<T> poll(String name, Probe<T> probe) {
+        return new Poller<>(name, probe);
+    }
+
+    /**
+     * Defaults to non-null value
+     */
+    public Poller<T> until(Predicate<T> condition) {
+        this.condition = condition;
+        return this;
+    }
+
+    /**
+     * Stops polling early, when the value will not meet the condition anymore (e.g. error page is shown)
+     */
+    public Poller<T> abortIf(Predicate<T> terminalState) {
+        this.terminalState = terminalState;
+        return this;
+    }
+
+    /**
+     * Maps the value to what is compared between attempts to detect changes, e.g. message of AssertionError.
+     * Defaults to the value itself.
+     */
+    public Poller<T> comparingBy(Function<T, Object> stateOf) {
+        this.stateOf = stateOf;
+        return this;
+    }
+
+    public Poller<T> withTimeout(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        return this;
+    }
+
+    public Poller<T> withStrategy(PollingStrategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    public PollResult<T> run() {
+        val isOutermostWait = WaitTimeAccounting.enterWait();
+        try {
+            val result = poll();
+            if (isOutermostWait) {
+                WaitTimeAccounting.record(name, result.getElapsedMs(), result.getSleptMs());
+            }
+            return result;
+        } finally {
+            WaitTimeAccounting.exitWait();
+        }
+    }
+
+    @SneakyThrows
+    private PollResult<T> poll() {
+        val start = System.currentTimeMillis();
+        val deadline = start + timeoutMs;
+        int attempts = 0;
+        long lastChangeMillis = start;
+        long lastIntervalMs = 0;
+        long sleptMs = 0;
+        Object lastState = null;
+        T value;
+        Outcome outcome;
+        while (true) {
+            value = probe.get();
+            attempts++;
+            val now = System.currentTimeMillis();
+            val state = stateOf.apply(value);
+            if (attempts == 1 || !Objects.equals(lastState, state)) {
+                lastState = state;
+                lastChangeMillis = now;
+            }
+            if (condition.test(value)) {
+                outcome = Outcome.SUCCEEDED;
+                break;
+            }
+            if (terminalState.test(value) || WaitAbortSignal.checkCurrentThread().isPresent()) {
+                outcome = Outcome.ABORTED;
+                break;
+            }
+            if (now >= deadline) {
+                outcome = Outcome.TIMED_OUT;
+                break;
+            }
+            lastIntervalMs = Math.min(strategy.getInterval(attempts), deadline - now);
+            Thread.sleep(lastIntervalMs);
+            sleptMs += lastIntervalMs;
+        }
+        val end = System.currentTimeMillis();
+        // on success, the change could have happened anytime during the last sleep, otherwise the value stayed the same
+        val wastedMs = outcome == Outcome.SUCCEEDED ? lastIntervalMs : end - lastChangeMillis;
+        val result = new PollResult<>(name, value, outcome, attempts, end - start, sleptMs, wastedMs);
+        log.debug("{}", result);
+        PollingStatistics.record(result);
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Probe<T> {
+
+        T get() throws Exception;
+    }
+
+    public enum Outcome {
+        SUCCEEDED,
+        ABORTED,
+        TIMED_OUT
+    }
+
+    @Value
+    public static class PollResult<T> {
+
+        String name;
+        T value;
+        Outcome outcome;
+        int attempts;
+        long elapsedMs;
+        long sleptMs;
+        long wastedMs;
+
+        public boolean isSuccessful() {
+            return outcome == Outcome.SUCCEEDED;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s after %d attempts in %d ms (%d ms wasted)", name, outcome, attempts, elapsedMs, wastedMs);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package waiters;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Aggregates Poller runs per wait name: attempts, time to success and time wasted after the last change of the
+ * polled value. The summary is logged and written as CSV to the framework reports directory at the end of the run
+ * (see PollingStatisticsExtension), to tune PollingStrategy and the timeouts from data. The directory is shared by
+ * the test JVMs of a gradle invocation (test-retry rounds included), so each of them writes its own
+ * polling-statistics-<pid>.csv.
+ */
+@Slf4j
+public class PollingStatistics {
+
+    private static final String REPORT_FILE_NAME = String.format("polling-statistics-%d.csv", ProcessHandle.current().pid());
+    private static final Map<String, WaitStatistics> statistics = new ConcurrentHashMap<>();
+
+    static void record(Poller.PollResult<?> result) {
+        statistics.computeIfAbsent(result.getName(), name -> new WaitStatistics()).record(result);
+    }
+
+    public static void report() {
+        if (statistics.isEmpty()) {
+            return;
+        }
+        log.info("Polling statistics, sorted by total time:\n{}", getSummary());
+        val reportFile = Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir(), REPORT_FILE_NAME);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, "wait,calls,successes,aborts,attempts,totalMs,avgTimeToSuccessMs,maxMs,wastedMs\n"
+                    + getSortedStatistics().map(entry -> entry.getValue().toCsv(entry.getKey())).collect(Collectors.joining("\n")));
+        } catch (IOException e) {
+            log.warn("Could not write polling statistics to {}: {}", reportFile, e.toString());
+        }
+    }
+
+    public static String getSummary() {
+        return getSortedStatistics()
+                .map(entry -> String.format("%-60s %s", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static Stream<Map.Entry<String, WaitStatistics>> getSortedStatistics() {
+        return statistics.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, WaitStatistics> entry) -> entry.getValue().totalMs.sum()).reversed());
+    }
+
+    private static class WaitStatistics {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder aborts = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final LongAdder timeToSuccessMs = new LongAdder();
+        private final LongAdder wastedMs = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+
+        void record(Poller.PollResult<?> result) {
+            calls.increment();
+            attempts.add(result.getAttempts());
+            totalMs.add(result.getElapsedMs());
+            wastedMs.add(result.getWastedMs());
+            maxMs.accumulate(result.getElapsedMs());
+            if (result.isSuccessful()) {
+                successes.increment();
+                timeToSuccessMs.add(result.getElapsedMs());
+            } else if (result.getOutcome() == Poller.Outcome.ABORTED) {
+                aborts.increment();
+            }
+        }
+
+        long getAverageTimeToSuccessMs() {
+            return successes.sum() == 0 ? 0 : timeToSuccessMs.sum() / successes.sum();
+        }
+
+        String toCsv(String name) {
+            return String.format("\"%s\",%d,%d,%d,%d,%d,%d,%d,%d", name.replace("\"", "\"\""), calls.sum(), successes.sum(),
+                    aborts.sum(), attempts.sum(), totalMs.sum(), getAverageTimeToSuccessMs(), maxMs.get(), wastedMs.sum());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls: %d (%d succeeded, %d aborted), attempts: %d, total: %d ms, avg to success: %d ms, "
+                            + "max: %d ms, wasted: %d ms", calls.sum(), successes.sum(), aborts.sum(), attempts.sum(), totalMs.sum(),
+                    getAverageTimeToSuccessMs(), maxMs.get(), wastedMs.sum());
+        }
+    }
+}
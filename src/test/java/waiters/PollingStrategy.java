@@ -0,0 +1,50 @@
+package waiters;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.val;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Decides how long Poller sleeps between attempts. The interval starts at initialIntervalMs and is multiplied
+ * by multiplier after each attempt, up to maxIntervalMs. Each interval is randomized by +/- jitter (a fraction
+ * of the interval), so parallel tests don't poll the remote browsers in lockstep.
+ */
+@Value
+@Builder(toBuilder = true)
+public class PollingStrategy {
+
+    long initialIntervalMs;
+    long maxIntervalMs;
+    double multiplier;
+    double jitter;
+
+    /**
+     * Fast-start exponential backoff, configured via the waiter.polling.* keys of EnvironmentConfig
+     */
+    public static PollingStrategy adaptive() {
+        return PollingStrategy.builder()
+                .initialIntervalMs(ENVIRONMENT_CONFIG.getPollingInitialInterval())
+                .maxIntervalMs(ENVIRONMENT_CONFIG.getPollingMaxInterval())
+                .multiplier(ENVIRONMENT_CONFIG.getPollingMultiplier())
+                .jitter(ENVIRONMENT_CONFIG.getPollingJitter())
+                .build();
+    }
+
+    public static PollingStrategy fixed(long intervalMs) {
+        return new PollingStrategy(intervalMs, intervalMs, 1, 0);
+    }
+
+    /**
+     * @param attempt number of attempts done so far, starting from 1
+     * @return time to sleep before the next attempt, never less than 1 ms
+     */
+    public long getInterval(int attempt) {
+        val backoff = Math.min(maxIntervalMs, initialIntervalMs * Math.pow(multiplier, attempt - 1));
+        val randomized = backoff * (1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        return Math.max(1, Math.round(randomized));
+    }
+}
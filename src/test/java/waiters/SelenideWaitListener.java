@@ -0,0 +1,132 @@
+package waiters;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import lombok.Value;
+import lombok.val;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+/**
+ * Accounts Selenide's should* checks (which poll until Configuration.timeout) to WaitTimeAccounting, under the element
+ * and the condition names. Selenide doesn't tell how much of the check was spent sleeping (nor how many attempts it
+ * took), so these waits are reported with the sleep unknown rather than an estimate.
+ *
+ * The event only has the check as text, e.g. 'should have(text "John" (because reason))', so the condition arguments
+ * (quoted values, numbers, attribute values, because-reasons) are stripped from it, leaving 'should have(text)'. They
+ * carry test data, which would split the ranking into a row per value.
+ */
+public class SelenideWaitListener implements LogEventListener {
+
+    private static final String SHOULD_PREFIX = "should";
+    private static final String BECAUSE = " (because ";
+    private static final Pattern EMPTY_PARENTHESES = Pattern.compile("\\(\\s*\\)");
+    private static final Pattern SPACES_BEFORE_SEPARATOR = Pattern.compile("\\s+(?=[,\\])])");
+
+    private final ThreadLocal<Deque<WaitEvent>> waitEvents = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeEvent(final LogEvent event) {
+        if (!isShouldCheck(event)) {
+            return;
+        }
+        waitEvents.get().push(new WaitEvent(event, WaitTimeAccounting.enterWait()));
+    }
+
+    @Override
+    public void afterEvent(final LogEvent event) {
+        val events = waitEvents.get();
+        if (events.isEmpty() || events.peek().getEvent() != event) {
+            return;
+        }
+        val waitEvent = events.pop();
+        WaitTimeAccounting.exitWait();
+        if (waitEvent.isOutermostWait()) {
+            WaitTimeAccounting.record(getWaitName(event), event.getDuration(), WaitTimeAccounting.SLEPT_MS_UNKNOWN);
+        }
+    }
+
+    /**
+     * @return element and the check without condition arguments, e.g. '#username should have(text, visible)'
+     */
+    static String getWaitName(LogEvent event) {
+        val subject = event.getSubject();
+        val argumentsStart = subject.indexOf('(');
+        if (argumentsStart < 0) {
+            return event.getElement() + " " + subject;
+        }
+        val conditions = stripArguments(subject.substring(argumentsStart));
+        return event.getElement() + " " + subject.substring(0, argumentsStart)
+                + SPACES_BEFORE_SEPARATOR.matcher(EMPTY_PARENTHESES.matcher(conditions).replaceAll("")).replaceAll("");
+    }
+
+    /**
+     * Drops quoted values, attribute values, numbers and because-reasons. Selenide doesn't escape the quotes inside
+     * quoted values, so a value ends with the quote followed by the end of the condition.
+     */
+    private static String stripArguments(String conditions) {
+        val name = new StringBuilder();
+        var i = 0;
+        while (i < conditions.length()) {
+            val c = conditions.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = getQuotedValueEnd(conditions, i);
+            } else if (conditions.startsWith(BECAUSE, i)) {
+                i = getClosingParenthesisEnd(conditions, i + 1);
+            } else if (c == '=') {
+                i = getConditionPartEnd(conditions, i);
+            } else if (Character.isDigit(c) && (i == 0 || !Character.isLetter(conditions.charAt(i - 1)))) {
+                i = getConditionPartEnd(conditions, i);
+            } else {
+                name.append(c);
+                i++;
+            }
+        }
+        return name.toString();
+    }
+
+    private static int getQuotedValueEnd(String conditions, int start) {
+        val quote = conditions.charAt(start);
+        for (int i = start + 1; i < conditions.length(); i++) {
+            if (conditions.charAt(i) == quote && (i + 1 == conditions.length()
+                    || ",])".indexOf(conditions.charAt(i + 1)) >= 0 || conditions.startsWith(" ", i + 1))) {
+                return i + 1;
+            }
+        }
+        return conditions.length();
+    }
+
+    private static int getClosingParenthesisEnd(String conditions, int start) {
+        var depth = 0;
+        for (int i = start; i < conditions.length(); i++) {
+            if (conditions.charAt(i) == '(') {
+                depth++;
+            } else if (conditions.charAt(i) == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return conditions.length();
+    }
+
+    private static int getConditionPartEnd(String conditions, int start) {
+        var i = start;
+        while (i < conditions.length() && !Character.isWhitespace(conditions.charAt(i)) && ",])".indexOf(conditions.charAt(i)) < 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isShouldCheck(LogEvent event) {
+        val subject = event.getSubject();
+        return subject != null && subject.startsWith(SHOULD_PREFIX);
+    }
+
+    @Value
+    private static class WaitEvent {
+
+        LogEvent event;
+        boolean outermostWait;
+    }
+}
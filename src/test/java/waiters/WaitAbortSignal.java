@@ -0,0 +1,87 @@
+package waiters;
+
+import lombok.val;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Lets the waits of a thread be aborted by a check run on that very thread (see pages.ErrorPageWatchdog), between
+ * the attempts of the waits:
+ *
+ *      val signal = WaitAbortSignal.register(() -> findErrorPage(), intervalMs);
+ *      ... waits ...
+ *      signal.unregister();
+ *
+ * Poller runs the check before each sleep and ends ABORTED once it finds a reason, Selenide's should* checks run it
+ * before each of their attempts and fail (see commands.AbortableCheck). The check runs at most once per interval,
+ * and the first reason found is kept until the signal is unregistered.
+ */
+public class WaitAbortSignal {
+
+    private static final ThreadLocal<WaitAbortSignal> signals = new ThreadLocal<>();
+
+    private final Supplier<Optional<String>> check;
+    private final long intervalMs;
+    private long nextCheckMillis;
+    private String reason;
+
+    private WaitAbortSignal(Supplier<Optional<String>> check, long intervalMs) {
+        this.check = check;
+        this.intervalMs = intervalMs;
+        this.nextCheckMillis = System.currentTimeMillis() + intervalMs;
+    }
+
+    /**
+     * @param check returns the reason to abort the waits for, if any
+     * @return signal of current thread's waits, replacing the previous one, if any
+     */
+    public static WaitAbortSignal register(Supplier<Optional<String>> check, long intervalMs) {
+        val signal = new WaitAbortSignal(check, intervalMs);
+        signals.set(signal);
+        return signal;
+    }
+
+    public static boolean isRegisteredForCurrentThread() {
+        return Objects.nonNull(signals.get());
+    }
+
+    /**
+     * Runs the check of current thread's signal, unless it has been run within the interval
+     *
+     * @return reason to abort the waits of current thread for
+     */
+    public static Optional<String> checkCurrentThread() {
+        val signal = signals.get();
+        return Objects.isNull(signal) ? Optional.empty() : signal.check();
+    }
+
+    /**
+     * @return reason found by the check so far, without running it
+     */
+    public Optional<String> getReason() {
+        return Optional.ofNullable(reason);
+    }
+
+    public void unregister() {
+        if (signals.get() == this) {
+            signals.remove();
+        }
+    }
+
+    private Optional<String> check() {
+        val now = System.currentTimeMillis();
+        if (Objects.nonNull(reason) || now < nextCheckMillis) {
+            return getReason();
+        }
+        // the check may call Selenide itself, which must not run it again
+        nextCheckMillis = Long.MAX_VALUE;
+        try {
+            reason = check.get().orElse(null);
+        } finally {
+            nextCheckMillis = System.currentTimeMillis() + intervalMs;
+        }
+        return getReason();
+    }
+}
@@ -0,0 +1,247 @@
+package waiters;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static configuration.EnvironmentConfig.ENVIRONMENT_CONFIG;
+
+/**
+ * Accounts the time each test spends in the framework's waits (Poller runs and Selenide should* checks, see
+ * SelenideWaitListener) against the time it spends doing anything else. Waits are named after the page scope they
+ * run in (e.g. the loaded callback of a page, see inScope()), so the ranking points at the page objects to fix.
+ *
+ * Only the outermost wait is accounted, the waits nested in its probe are part of its time. Per-test breakdown is
+ * attached to the report by WaitTimeAccountingExtension, the suite-wide ranking is logged and written as CSV to the
+ * framework reports directory at the end of the run. The directory is shared by the test JVMs of a gradle invocation
+ * (test-retry rounds included): each of them writes its own wait-time-ranking-<pid>.csv and then aggregates all of
+ * them into wait-time-ranking.csv, so the last JVM to finish leaves the ranking of the whole invocation.
+ */
+@Slf4j
+public class WaitTimeAccounting {
+
+    /**
+     * Slept time of waits that don't tell it (Selenide's should* checks), reported as unknown rather than as 0 ms
+     */
+    static final long SLEPT_MS_UNKNOWN = -1;
+    private static final String REPORT_FILE_NAME = "wait-time-ranking.csv";
+    private static final String JVM_REPORT_FILE_NAME = String.format("wait-time-ranking-%d.csv", ProcessHandle.current().pid());
+    private static final String CSV_HEADER = "wait,calls,totalMs,sleptMs,maxMs\n";
+    private static final int LOGGED_RANKING_SIZE = 20;
+    private static final Map<String, WaitCost> suiteWaits = new ConcurrentHashMap<>();
+    private static final LongAdder suiteTestsMs = new LongAdder();
+    private static final LongAdder suiteWaitingMs = new LongAdder();
+    private static final ThreadLocal<TestWaits> testWaits = ThreadLocal.withInitial(TestWaits::new);
+    private static final ThreadLocal<Deque<String>> scopes = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<int[]> waitDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Starts accounting the test running on current thread
+     */
+    public static void startTest() {
+        testWaits.set(new TestWaits());
+        waitDepth.get()[0] = 0;
+    }
+
+    /**
+     * Finishes accounting the test running on current thread
+     *
+     * @return breakdown of the test's time, empty if it didn't wait at all
+     */
+    public static String finishTest() {
+        val waits = testWaits.get();
+        testWaits.remove();
+        val durationMs = System.currentTimeMillis() - waits.startMillis;
+        suiteTestsMs.add(durationMs);
+        if (waits.waits.isEmpty()) {
+            return "";
+        }
+        val waitingMs = waits.waits.values().stream().mapToLong(cost -> cost.totalMs.sum()).sum();
+        val sleepingMs = waits.waits.values().stream().mapToLong(cost -> cost.sleptMs.sum()).sum();
+        val sleepUnknownCalls = waits.waits.values().stream().mapToLong(cost -> cost.sleepUnknownCalls.sum()).sum();
+        val sleepingNote = sleepUnknownCalls == 0 ? "" : String.format(" (sleep unknown for %d calls)", sleepUnknownCalls);
+        return String.format("Test took %d ms: %d ms (%d%%) waiting, %d ms of which sleeping between attempts%s; %d ms doing anything else%n%n",
+                durationMs, waitingMs, percentage(waitingMs, durationMs), sleepingMs, sleepingNote, Math.max(0, durationMs - waitingMs))
+                + getRanking(waits.waits).collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Runs the code with the waits inside accounted under given scope, e.g. the name of the page being loaded
+     */
+    public static <T> T inScope(String scope, Supplier<T> code) {
+        scopes.get().push(scope);
+        try {
+            return code.get();
+        } finally {
+            scopes.get().pop();
+        }
+    }
+
+    public static void inScope(String scope, Runnable code) {
+        inScope(scope, () -> {
+            code.run();
+            return null;
+        });
+    }
+
+    /**
+     * Marks the start of a wait on current thread, to be paired with exitWait()
+     *
+     * @return whether it's the outermost wait, the only one to be recorded
+     */
+    static boolean enterWait() {
+        return waitDepth.get()[0]++ == 0;
+    }
+
+    static void exitWait() {
+        val depth = waitDepth.get();
+        depth[0] = Math.max(0, depth[0] - 1);
+    }
+
+    /**
+     * @param sleptMs part of the elapsed time spent sleeping between the attempts, SLEPT_MS_UNKNOWN if unknown
+     */
+    static void record(String waitName, long elapsedMs, long sleptMs) {
+        val scope = scopes.get().peek();
+        val name = Objects.isNull(scope) ? waitName : scope + " > " + waitName;
+        testWaits.get().waits.computeIfAbsent(name, key -> new WaitCost()).record(elapsedMs, sleptMs);
+        suiteWaits.computeIfAbsent(name, key -> new WaitCost()).record(elapsedMs, sleptMs);
+        suiteWaitingMs.add(elapsedMs);
+    }
+
+    /**
+     * Logs the waits that cost the most time and writes all of them as CSV, for this JVM and aggregated with the ones
+     * written by the other JVMs. Meant to be called once, at the end of the run.
+     */
+    public static void report() {
+        if (suiteWaits.isEmpty()) {
+            return;
+        }
+        log.info("Tests spent {} ms of {} ms ({}%) waiting, the most costly waits:\n{}", suiteWaitingMs.sum(), suiteTestsMs.sum(),
+                percentage(suiteWaitingMs.sum(), suiteTestsMs.sum()),
+                getRanking(suiteWaits).limit(LOGGED_RANKING_SIZE).collect(Collectors.joining("\n")));
+        val reportsDir = Paths.get(ENVIRONMENT_CONFIG.getFrameworkReportsDir());
+        try {
+            Files.createDirectories(reportsDir);
+            Files.writeString(reportsDir.resolve(JVM_REPORT_FILE_NAME), toCsv(suiteWaits));
+            writeAggregatedReport(reportsDir);
+        } catch (IOException e) {
+            log.warn("Could not write wait time ranking to {}: {}", reportsDir, e.toString());
+        }
+    }
+
+    private static void writeAggregatedReport(Path reportsDir) throws IOException {
+        val aggregatedWaits = new HashMap<String, WaitCost>();
+        try (val jvmReports = Files.newDirectoryStream(reportsDir, "wait-time-ranking-*.csv")) {
+            for (val jvmReport : jvmReports) {
+                Files.readAllLines(jvmReport).stream().skip(1).filter(line -> !line.isEmpty()).forEach(line -> {
+                    // the name is quoted and may contain commas, the 4 numeric columns follow it
+                    val columns = line.substring(line.lastIndexOf("\",") + 2).split(",", -1);
+                    val name = line.substring(1, line.lastIndexOf("\",")).replace("\"\"", "\"");
+                    aggregatedWaits.computeIfAbsent(name, key -> new WaitCost()).add(columns);
+                });
+            }
+        }
+        // written aside and moved, so that JVMs finishing at the same time don't interleave their writes
+        val reportFile = reportsDir.resolve(REPORT_FILE_NAME);
+        val tempFile = Files.createTempFile(reportsDir, REPORT_FILE_NAME, ".tmp");
+        Files.writeString(tempFile, toCsv(aggregatedWaits));
+        Files.move(tempFile, reportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String toCsv(Map<String, WaitCost> waits) {
+        return CSV_HEADER + getSortedWaits(waits)
+                .map(entry -> entry.getValue().toCsv(entry.getKey()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static Stream<String> getRanking(Map<String, WaitCost> waits) {
+        return getSortedWaits(waits).map(entry -> String.format("%-80s %s", entry.getKey(), entry.getValue()));
+    }
+
+    private static Stream<Map.Entry<String, WaitCost>> getSortedWaits(Map<String, WaitCost> waits) {
+        return waits.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, WaitCost> entry) -> entry.getValue().totalMs.sum()).reversed());
+    }
+
+    private static long percentage(long part, long total) {
+        return total == 0 ? 0 : part * 100 / total;
+    }
+
+    private static class TestWaits {
+
+        private final long startMillis = System.currentTimeMillis();
+        private final Map<String, WaitCost> waits = new HashMap<>();
+    }
+
+    private static class WaitCost {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final LongAdder sleptMs = new LongAdder();
+        private final LongAdder sleepUnknownCalls = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+
+        void record(long elapsedMs, long sleptMs) {
+            calls.increment();
+            totalMs.add(elapsedMs);
+            if (sleptMs == SLEPT_MS_UNKNOWN) {
+                sleepUnknownCalls.increment();
+            } else {
+                this.sleptMs.add(sleptMs);
+            }
+            maxMs.accumulate(elapsedMs);
+        }
+
+        /**
+         * Adds the costs read from CSV columns calls, totalMs, sleptMs and maxMs, see toCsv()
+         */
+        void add(String[] columns) {
+            val addedCalls = Long.parseLong(columns[0]);
+            calls.add(addedCalls);
+            totalMs.add(Long.parseLong(columns[1]));
+            if (columns[2].isEmpty()) {
+                // how many of the calls had unknown sleep isn't written, any of them makes the sum unknown
+                sleepUnknownCalls.add(addedCalls);
+            } else {
+                sleptMs.add(Long.parseLong(columns[2]));
+            }
+            maxMs.accumulate(Long.parseLong(columns[3]));
+        }
+
+        /**
+         * sleptMs column is left empty when the sleep of any call is unknown
+         */
+        String toCsv(String name) {
+            return String.format("\"%s\",%d,%d,%s,%d", name.replace("\"", "\"\""), calls.sum(), totalMs.sum(),
+                    isSleepKnown() ? String.valueOf(sleptMs.sum()) : "", maxMs.get());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls: %d, total: %d ms, slept: %s, max: %d ms", calls.sum(), totalMs.sum(),
+                    isSleepKnown() ? sleptMs.sum() + " ms" : "sleep unknown", maxMs.get());
+        }
+
+        private boolean isSleepKnown() {
+            return sleepUnknownCalls.sum() == 0;
+        }
+    }
+}
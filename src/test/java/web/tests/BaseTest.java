@@ -2,9 +2,20 @@ package web.tests;
 
 import configuration.EnvironmentConfig;
 import configuration.WebDriverType;
+import cookies.CookieBatch;
 import cookies.CookieManager;
 import cookies.WrCookie;
 import exception.WrongFrameworkUsageException;
+import extentions.BrowserContextExtension;
+import extentions.CommandLatencyExtension;
+import extentions.EnvironmentCircuitBreakerExtension;
+import extentions.HarRecordingExtension;
+import extentions.PollingStatisticsExtension;
+import extentions.SessionAdmissionExtension;
+import extentions.SessionPoolExtension;
+import extentions.TracingExtension;
+import extentions.WaitTimeAccountingExtension;
+import extentions.WrCookieValidationExtension;
 import helpers.BuildEnvType;
 import helpers.BuildEnvTypeManager;
 import helpers.ProjectDetectionExtension;
@@ -14,6 +25,7 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.openqa.selenium.Cookie;
+import sessions.SessionResetter;
 import tags.E2eTest;
 
 import java.lang.annotation.Annotation;
@@ -28,6 +40,16 @@ import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.toList;
 
 @ExtendWith({ProjectDetectionExtension.class,
+        EnvironmentCircuitBreakerExtension.class,
+        TracingExtension.class,
+        WrCookieValidationExtension.class,
+        PollingStatisticsExtension.class,
+        CommandLatencyExtension.class,
+        WaitTimeAccountingExtension.class,
+        SessionAdmissionExtension.class,
+        SessionPoolExtension.class,
+        BrowserContextExtension.class,
+        HarRecordingExtension.class,
 })
 public abstract class BaseTest extends TearDownable {
 
@@ -120,6 +142,14 @@ public abstract class BaseTest extends TearDownable {
         return CookieManager.forDomain(getDummyUrl()).getWrCookie(wrCookieClass);
     }
 
+    /**
+     * Use it instead of several calls to cookie methods above, each of which opens the dummy URL in new tab.
+     * The batch is run within a single tab visit when CookieBatch::execute is called.
+     */
+    protected CookieBatch cookieBatch() {
+        return CookieManager.forDomain(getDummyUrl()).batch();
+    }
+
     protected void setAndValidateCookie(WrCookie wrCookie) {
         CookieManager.forDomain(getDummyUrl()).setAndValidateCookie(wrCookie);
     }
@@ -132,6 +162,14 @@ public abstract class BaseTest extends TearDownable {
         CookieManager.forDomain(getDummyUrl()).setAndValidateCookies(wrCookie);
     }
 
+    /**
+     * Returns the browser to a clean state (single blank window, no cookies nor storage) without closing it.
+     * Useful in tests that need to start over, e.g. log in as a different user.
+     */
+    protected void resetBrowserSession() {
+        SessionResetter.reset();
+    }
+
     protected void disableTestIf(boolean condition, String reason) {
         Assumptions.assumeFalse(condition, reason);
     }
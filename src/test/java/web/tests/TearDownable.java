@@ -1,9 +1,14 @@
 package web.tests;
 
 import lombok.Getter;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import sessions.SessionResetter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 public class TearDownable {
 
@@ -17,4 +22,38 @@ public class TearDownable {
     public void registerTearDown(Runnable tearDown) {
         getMethodTearDowns().add(tearDown);
     }
+
+    /**
+     * Registers browser reset (see SessionResetter) to be run after the test, so it leaves the browser
+     * session clean for the next one.
+     */
+    public void registerBrowserResetTearDown() {
+        registerTearDown(SessionResetter::reset);
+    }
+
+    /**
+     * Runs registered teardowns in reverse order, all of them even if some fail. Runs before the extensions'
+     * afterEach callbacks, so the browser session is still bound to the test.
+     */
+    @AfterEach
+    void runMethodTearDowns() {
+        val tearDowns = new ArrayList<>(methodTearDowns);
+        methodTearDowns.clear();
+        Collections.reverse(tearDowns);
+        RuntimeException failure = null;
+        for (val tearDown : tearDowns) {
+            try {
+                tearDown.run();
+            } catch (RuntimeException e) {
+                if (Objects.isNull(failure)) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
 }